@@ -0,0 +1,22 @@
+package eu.stefanangelov.jprime2025.aeron.latency.config;
+
+import eu.stefanangelov.jprime2025.core.transport.aeron.AeronClientConfig;
+import io.aeron.driver.MaxMulticastFlowControlSupplier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * The shared Aeron client, with an embedded driver whose spies count as subscribers and whose multicast flow control
+ * follows the fastest receiver.
+ */
+@Configuration
+@Import(AeronClientConfig.class)
+public class AeronConfig {
+
+    @Bean
+    public AeronClientConfig.DriverCustomizer measurementDriverCustomizer() {
+        return context -> context.spiesSimulateConnection(true)
+                .multicastFlowControlSupplier(new MaxMulticastFlowControlSupplier());
+    }
+}
@@ -0,0 +1,97 @@
+package eu.stefanangelov.jprime2025.aeron.latency.subscriber;
+
+import eu.stefanangelov.jprime2025.core.spi.TickHandler;
+import eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerDecoder;
+import io.aeron.Publication;
+import io.aeron.logbuffer.ControlledFragmentHandler;
+import io.aeron.logbuffer.Header;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.DirectBuffer;
+import org.agrona.collections.Int2ObjectHashMap;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handles the book tickers of one shard stream. Each shard is polled by its own thread, so the decoder and the symbol
+ * cache are not shared, while the {@link TickHandler} of the measurement engine aggregates over all shards.
+ * <p>
+ * The tick is measured before the echo is offered, so the offer does not add to the measured latency. Used with a
+ * controlled poll, a back-pressured echo offer aborts the fragment so it is delivered again on the next poll instead
+ * of losing the echo; the redelivered fragment is recognised by its position and not measured twice. With a plain
+ * poll the echo is dropped and counted in {@code aeron.echo.offer.failed}.
+ */
+@Slf4j
+public class BookTickerShardHandler implements ControlledFragmentHandler {
+
+    private final BookTickerDecoder decoder = new BookTickerDecoder();
+    private final Int2ObjectHashMap<String> symbols = new Int2ObjectHashMap<>();
+    private final Publication echoPublication;
+    private final TickHandler tickHandler;
+    private final boolean controlledPoll;
+    private final Counter messagesReceived;
+    private final Counter echoOfferFailures;
+    private final Timer latencyTimer;
+    private long abortedPosition = -1;
+
+    public BookTickerShardHandler(
+            int shard,
+            MeterRegistry meterRegistry,
+            TickHandler tickHandler,
+            Publication echoPublication,
+            boolean controlledPoll) {
+        String shardTag = Integer.toString(shard);
+        this.echoPublication = echoPublication;
+        this.tickHandler = tickHandler;
+        this.controlledPoll = controlledPoll;
+        this.messagesReceived = meterRegistry.counter("aeron.messages.received", "shard", shardTag);
+        this.echoOfferFailures = meterRegistry.counter("aeron.echo.offer.failed", "shard", shardTag);
+        this.latencyTimer = Timer.builder("aeron.latency")
+                .description("Latency of messages received via Aeron")
+                .tag("shard", shardTag)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Action onFragment(DirectBuffer buffer, int offset, int length, Header header) {
+        try {
+            long position = header.position();
+            if (position != abortedPosition) {
+                messagesReceived.increment();
+                decoder.wrap(buffer, offset);
+                long latencyNs = tickHandler.onTick(symbol(), decoder.updateId(), decoder.sequence(),
+                        decoder.timestamp());
+                latencyTimer.record(latencyNs, TimeUnit.NANOSECONDS);
+            }
+            abortedPosition = -1;
+            if (echoPublication != null) {
+                long result = echoPublication.offer(buffer, offset, length);
+                if (result == Publication.BACK_PRESSURED || result == Publication.ADMIN_ACTION) {
+                    if (controlledPoll) {
+                        abortedPosition = position;
+                        return Action.ABORT;
+                    }
+                    echoOfferFailures.increment();
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error processing message", e);
+        }
+        return Action.COMMIT;
+    }
+
+    /**
+     * Resolve the symbol name of the current message, decoding it only the first time its id is seen.
+     */
+    private String symbol() {
+        String symbol = symbols.get(decoder.symbolId());
+        if (symbol == null) {
+            symbol = decoder.symbol();
+            symbols.put(decoder.symbolId(), symbol);
+        }
+        return symbol;
+    }
+}
@@ -1,109 +1,138 @@
 package eu.stefanangelov.jprime2025.aeron.latency.subscriber;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import eu.stefanangelov.jprime2025.aeron.latency.model.BookTicker;
+import eu.stefanangelov.jprime2025.core.spi.TickHandler;
+import eu.stefanangelov.jprime2025.core.spi.TickSubscriber;
+import eu.stefanangelov.jprime2025.core.transport.aeron.AeronClientConfig;
 import io.aeron.Aeron;
+import io.aeron.Publication;
 import io.aeron.Subscription;
-import io.aeron.driver.MediaDriver;
-import io.aeron.driver.ThreadingMode;
-import io.aeron.driver.MaxMulticastFlowControlSupplier;
-import io.aeron.logbuffer.FragmentHandler;
+import io.aeron.driver.Configuration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
 import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.Timer;
-import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.agrona.concurrent.BusySpinIdleStrategy;
+import org.agrona.CloseHelper;
+import org.agrona.concurrent.AgentRunner;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
-
+/**
+ * Aeron {@link TickSubscriber}: subscribes to the {@code AERON_SHARD_COUNT} shard streams of the websocket service,
+ * stream ids {@value #STREAM_ID_BASE} and up, and once started polls each of them with a
+ * {@link BookTickerSubscriberAgent} on its own {@link AgentRunner} thread.
+ * <p>
+ * The poll loop trades CPU against tail latency through {@code AERON_SUBSCRIBER_IDLE_STRATEGY} ({@code spin},
+ * {@code yield}, {@code backoff}, {@code sleep-ns} or an {@code IdleStrategy} class name),
+ * {@code AERON_SUBSCRIBER_FRAGMENT_LIMIT} and {@code AERON_SUBSCRIBER_CONTROLLED_POLL}.
+ * {@code AERON_SUBSCRIBER_CPU_AFFINITY} holds {@code taskset} CPU lists separated by {@code ;}, one per shard and
+ * reused round robin when there are more shards, e.g. {@code 2;3}.
+ */
 @Slf4j
 @Component
-public class BookTickerSubscriber {
+public class BookTickerSubscriber implements TickSubscriber {
+
+    public static final int STREAM_ID_BASE = 100;
 
-    private final Aeron aeron;
-    private final Subscription subscription;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Subscription[] subscriptions;
+    private final AgentRunner[] agentRunners;
+    private final Publication echoPublication;
     private final MeterRegistry meterRegistry;
-    private final Timer latencyTimer;
-    private final MediaDriver mediaDriver;
+    private final int fragmentLimit;
+    private final String idleStrategy;
+    private final boolean controlledPoll;
+    private final String[] cpuLists;
 
     public BookTickerSubscriber(
+            Aeron aeron,
             MeterRegistry meterRegistry,
-            @Value("${AERON_CHANNEL:aeron:udp?endpoint=LOCALHOST:0|control=localhost:40123|control-mode=dynamic}") String aeronChannel) {
-
+            @Value("${AERON_CHANNEL:aeron:udp?endpoint=LOCALHOST:0|control=localhost:40123"
+                    + "|control-mode=dynamic}") String aeronChannel,
+            @Value("${AERON_SHARD_COUNT:1}") int shardCount,
+            @Value("${AERON_SUBSCRIBER_FRAGMENT_LIMIT:10}") int fragmentLimit,
+            @Value("${AERON_SUBSCRIBER_IDLE_STRATEGY:yield}") String idleStrategy,
+            @Value("${AERON_SUBSCRIBER_CONTROLLED_POLL:false}") boolean controlledPoll,
+            @Value("${AERON_SUBSCRIBER_CPU_AFFINITY:}") String cpuAffinity,
+            @Value("${AERON_ECHO_CHANNEL:aeron:udp?control=localhost:40124|control-mode=dynamic}") String echoChannel,
+            @Value("${latency.echo.enabled:false}") boolean echoEnabled,
+            @Value("${AERON_TERM_BUFFER_LENGTH:0}") int termBufferLength,
+            @Value("${AERON_MTU_LENGTH:0}") int mtuLength) {
 
-        // Configure MediaDriver
-        final MediaDriver.Context mediaDriverCtx = new MediaDriver.Context()
-                .dirDeleteOnStart(true)
-                .dirDeleteOnShutdown(true)
-                .spiesSimulateConnection(true)
-                .threadingMode(ThreadingMode.DEDICATED)
-                .multicastFlowControlSupplier(new MaxMulticastFlowControlSupplier())
-                .conductorIdleStrategy(new BusySpinIdleStrategy())
-                .senderIdleStrategy(new BusySpinIdleStrategy())
-                .receiverIdleStrategy(new BusySpinIdleStrategy());
-
-        this.mediaDriver = MediaDriver.launchEmbedded(mediaDriverCtx);
-        Aeron.Context context = new Aeron.Context()
-                .aeronDirectoryName(mediaDriver.aeronDirectoryName());
-        this.aeron = Aeron.connect(context);
-        this.subscription = aeron.addSubscription(aeronChannel, 100);
+        // Reflect messages back so the producer can measure round trip time on its own clock.
+        // All shard threads offer to it, so it is a concurrent publication rather than an exclusive one.
+        this.echoPublication = echoEnabled ? aeron.addPublication(
+                AeronClientConfig.publicationChannel(echoChannel, termBufferLength, mtuLength), 101) : null;
+        this.subscriptions = new Subscription[shardCount];
+        this.agentRunners = new AgentRunner[shardCount];
         this.meterRegistry = meterRegistry;
-        this.latencyTimer = Timer.builder("aeron.latency")
-                .description("Latency of messages received via Aeron")
-                .publishPercentiles(0.5, 0.95, 0.99)
-                .register(meterRegistry);
+        this.fragmentLimit = fragmentLimit;
+        this.idleStrategy = idleStrategy;
+        this.controlledPoll = controlledPoll;
+        this.cpuLists = cpuAffinity.isBlank() ? new String[0] : cpuAffinity.split(";");
+        for (int shard = 0; shard < shardCount; shard++) {
+            subscriptions[shard] = aeron.addSubscription(aeronChannel, STREAM_ID_BASE + shard);
+        }
     }
 
-    @PostConstruct
-    public void startPolling() {
-        FragmentHandler handler = (buffer, offset, length, header) -> {
-            try {
-                meterRegistry.counter("aeron.messages.received").increment();
-                long now = System.nanoTime();
-                BookTicker bookTicker = objectMapper.readValue(buffer.getStringAscii(offset), BookTicker.class);
-                long latencyNs = now - bookTicker.getTimestamp();
-                double latencyMs = latencyNs / 1_000_000.0;
-                latencyTimer.record(Duration.ofNanos(latencyNs));
-                log.info("Received book ticker: {}, Latency: {} ms", bookTicker.getSymbol(), latencyMs);
-            } catch (Exception e) {
-                log.error("Error processing message", e);
-            }
-        };
+    @Override
+    public String transport() {
+        return "aeron";
+    }
 
-        new Thread(() -> {
-            while (!Thread.interrupted()) {
-                subscription.poll(handler, 10);
-                Thread.yield();
-            }
-        }).start();
+    @Override
+    public void start(TickHandler tickHandler) {
+        Counter errors = meterRegistry.counter("aeron.subscriber.errors");
+        for (int shard = 0; shard < subscriptions.length; shard++) {
+            BookTickerShardHandler handler = new BookTickerShardHandler(
+                    shard, meterRegistry, tickHandler, echoPublication, controlledPoll);
+            BookTickerSubscriberAgent agent = new BookTickerSubscriberAgent(
+                    shard,
+                    subscriptions[shard],
+                    handler,
+                    fragmentLimit,
+                    controlledPoll,
+                    cpuLists.length == 0 ? null : cpuLists[shard % cpuLists.length].trim());
+            String shardTag = Integer.toString(shard);
+            FunctionCounter.builder("aeron.subscriber.polls", agent, BookTickerSubscriberAgent::polls)
+                    .description("Subscription polls, including empty ones")
+                    .tag("shard", shardTag)
+                    .register(meterRegistry);
+            FunctionCounter.builder("aeron.subscriber.polls.empty", agent, BookTickerSubscriberAgent::emptyPolls)
+                    .description("Subscription polls that returned no fragments")
+                    .tag("shard", shardTag)
+                    .register(meterRegistry);
+            FunctionCounter.builder("aeron.subscriber.fragments", agent, BookTickerSubscriberAgent::fragments)
+                    .description("Fragments handled by the poll loop")
+                    .tag("shard", shardTag)
+                    .register(meterRegistry);
+            agentRunners[shard] = new AgentRunner(
+                    Configuration.agentIdleStrategy(idleStrategy, null),
+                    throwable -> {
+                        errors.increment();
+                        log.error("Error in book ticker subscriber", throwable);
+                    },
+                    null,
+                    agent);
+            AgentRunner.startOnThread(agentRunners[shard]);
+        }
     }
 
     @PreDestroy
     public void close() {
-        try {
-            if (subscription != null && !subscription.isClosed()) {
-                subscription.close();
-            }
-        } catch (Exception e) {
-            log.error("Error closing subscription", e);
+        for (AgentRunner agentRunner : agentRunners) {
+            CloseHelper.quietClose(agentRunner);
         }
         try {
-            if (aeron != null && !aeron.isClosed()) {
-                aeron.close();
+            for (Subscription subscription : subscriptions) {
+                if (subscription != null && !subscription.isClosed()) {
+                    subscription.close();
+                }
             }
-        } catch (Exception e) {
-            log.error("Error closing Aeron", e);
-        }
-        try {
-            if (mediaDriver != null ) {
-                mediaDriver.close();
+            if (echoPublication != null && !echoPublication.isClosed()) {
+                echoPublication.close();
             }
         } catch (Exception e) {
-            log.error("Error closing MediaDriver", e);
+            log.error("Error closing subscription", e);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package eu.stefanangelov.jprime2025.aeron.latency.subscriber;
+
+import eu.stefanangelov.jprime2025.core.thread.CpuAffinity;
+import io.aeron.Subscription;
+import io.aeron.logbuffer.FragmentHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.concurrent.Agent;
+
+/**
+ * Polls one shard subscription on an {@link org.agrona.concurrent.AgentRunner} thread.
+ * <p>
+ * A controlled poll commits the position after every fragment and lets the handler abort a fragment, a plain poll
+ * hands the whole batch of up to {@code fragmentLimit} fragments to the handler at once. Empty polls and fragments
+ * are counted in plain fields written only by the agent thread and read by the metrics gauges, so the duty cycle
+ * does not pay for an atomic update.
+ */
+@Slf4j
+public class BookTickerSubscriberAgent implements Agent {
+
+    private final int shard;
+    private final Subscription subscription;
+    private final BookTickerShardHandler controlledHandler;
+    private final FragmentHandler handler;
+    private final int fragmentLimit;
+    private final boolean controlledPoll;
+    private final String cpuAffinity;
+    private long polls;
+    private long emptyPolls;
+    private long fragments;
+
+    public BookTickerSubscriberAgent(int shard, Subscription subscription, BookTickerShardHandler handler,
+                                     int fragmentLimit, boolean controlledPoll, String cpuAffinity) {
+        this.shard = shard;
+        this.subscription = subscription;
+        this.controlledHandler = handler;
+        this.handler = handler::onFragment;
+        this.fragmentLimit = fragmentLimit;
+        this.controlledPoll = controlledPoll;
+        this.cpuAffinity = cpuAffinity;
+    }
+
+    @Override
+    public void onStart() {
+        if (cpuAffinity != null && !cpuAffinity.isBlank()) {
+            CpuAffinity.pinCurrentThread(cpuAffinity);
+        }
+    }
+
+    @Override
+    public int doWork() {
+        int workCount = controlledPoll
+                ? subscription.controlledPoll(controlledHandler, fragmentLimit)
+                : subscription.poll(handler, fragmentLimit);
+        polls++;
+        if (workCount == 0) {
+            emptyPolls++;
+        } else {
+            fragments += workCount;
+        }
+        return workCount;
+    }
+
+    public long polls() {
+        return polls;
+    }
+
+    public long emptyPolls() {
+        return emptyPolls;
+    }
+
+    public long fragments() {
+        return fragments;
+    }
+
+    @Override
+    public String roleName() {
+        return "aeron-subscriber-" + shard;
+    }
+}
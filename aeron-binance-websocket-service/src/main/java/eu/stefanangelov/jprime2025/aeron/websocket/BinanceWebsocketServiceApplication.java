@@ -1,9 +1,13 @@
 package eu.stefanangelov.jprime2025.aeron.websocket;
 
+import eu.stefanangelov.jprime2025.core.ingest.IngestConfiguration;
+import eu.stefanangelov.jprime2025.core.transport.aeron.AeronClientConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
+@Import({IngestConfiguration.class, AeronClientConfig.class})
 public class BinanceWebsocketServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(BinanceWebsocketServiceApplication.class, args);
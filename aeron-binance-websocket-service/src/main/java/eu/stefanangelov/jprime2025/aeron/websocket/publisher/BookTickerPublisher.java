@@ -0,0 +1,178 @@
+package eu.stefanangelov.jprime2025.aeron.websocket.publisher;
+
+import eu.stefanangelov.jprime2025.core.clock.LatencyClock;
+import eu.stefanangelov.jprime2025.core.model.MutableBookTicker;
+import eu.stefanangelov.jprime2025.core.spi.TickPublisher;
+import eu.stefanangelov.jprime2025.core.transport.aeron.AeronClientConfig;
+import eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerEncoder;
+import eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout;
+import io.aeron.Aeron;
+import io.aeron.Publication;
+import io.aeron.Subscription;
+import io.aeron.driver.Configuration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.CloseHelper;
+import org.agrona.concurrent.AgentRunner;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.ringbuffer.OneToOneRingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBufferDescriptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Aeron {@link TickPublisher}: hands encoded book tickers to a dedicated publisher thread through a pre-allocated
+ * single producer ring buffer.
+ * <p>
+ * {@link #publish} is called on the websocket reader thread and never blocks: it encodes the ticker straight into
+ * the ring, and when the ring is full the ticker is dropped and counted. The {@link BookTickerPublisherAgent} runs
+ * on its own {@link AgentRunner} thread, which {@code AERON_PUBLISHER_CPU} pins to an isolated core, given as a
+ * {@code taskset} CPU list.
+ * <p>
+ * Symbols are spread over {@code AERON_SHARD_COUNT} publications on stream ids {@value #STREAM_ID_BASE} and up, so a
+ * slow consumer of one symbol group does not delay the others. {@code AERON_SHARD_MAPPING} pins symbols to shards
+ * explicitly ({@code BTCUSDT=0,ETHUSDT=1}), all other symbols are hashed.
+ * <p>
+ * With {@code latency.echo.enabled} the agent also subscribes to {@code AERON_ECHO_CHANNEL}, on which the latency
+ * measurement service reflects every message, and records the round trip time.
+ */
+@Slf4j
+@Component
+public class BookTickerPublisher implements TickPublisher {
+
+    public static final int STREAM_ID_BASE = 100;
+
+    private final Publication[] publications;
+    private final Subscription echoSubscription;
+    private final BookTickerEncoder encoder = new BookTickerEncoder();
+    private final RingBuffer ringBuffer;
+    private final AgentRunner agentRunner;
+    private final Counter framesDropped;
+
+    public BookTickerPublisher(
+            Aeron aeron,
+            MeterRegistry meterRegistry,
+            LatencyClock clock,
+            @Value("${AERON_CHANNEL:aeron:udp?control=localhost:40123|control-mode=dynamic}") String aeronChannel,
+            @Value("${AERON_TERM_BUFFER_LENGTH:0}") int termBufferLength,
+            @Value("${AERON_MTU_LENGTH:0}") int mtuLength,
+            @Value("${AERON_SHARD_COUNT:1}") int shardCount,
+            @Value("${AERON_SHARD_MAPPING:}") String shardMapping,
+            @Value("${AERON_ECHO_CHANNEL:aeron:udp?endpoint=localhost:0|control=localhost:40124"
+                    + "|control-mode=dynamic}") String echoChannel,
+            @Value("${latency.echo.enabled:false}") boolean echoEnabled,
+            @Value("${AERON_PUBLISHER_RING_CAPACITY:1048576}") int ringCapacity,
+            @Value("${AERON_PUBLISHER_FRAME_LIMIT:16}") int frameLimit,
+            @Value("${AERON_PUBLISHER_IDLE_STRATEGY:yield}") String idleStrategy,
+            @Value("${AERON_PUBLISHER_CPU:}") String cpu) {
+
+        String publicationChannel = AeronClientConfig.publicationChannel(aeronChannel, termBufferLength, mtuLength);
+        SymbolSharding sharding = SymbolSharding.parse(shardCount, shardMapping);
+        this.publications = new Publication[shardCount];
+        Counter[] offerFailures = new Counter[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            publications[shard] = aeron.addExclusivePublication(publicationChannel, STREAM_ID_BASE + shard);
+            offerFailures[shard] = meterRegistry.counter("aeron.publisher.offer.failed",
+                    "shard", Integer.toString(shard));
+        }
+        this.echoSubscription = echoEnabled ? aeron.addSubscription(echoChannel, 101) : null;
+
+        this.ringBuffer = new OneToOneRingBuffer(new UnsafeBuffer(
+                ByteBuffer.allocateDirect(ringCapacity + RingBufferDescriptor.TRAILER_LENGTH)));
+        this.framesDropped = meterRegistry.counter("aeron.publisher.frames.dropped");
+        meterRegistry.gauge("aeron.publisher.ring.size", ringBuffer, RingBuffer::size);
+
+        BookTickerPublisherAgent agent = new BookTickerPublisherAgent(
+                ringBuffer,
+                publications,
+                sharding,
+                echoSubscription,
+                clock,
+                frameLimit,
+                Timer.builder("aeron.publisher.queue.latency")
+                        .description("Time tickers spend between the websocket thread and the Aeron offer")
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .register(meterRegistry),
+                Timer.builder("aeron.echo.rtt")
+                        .description("Round trip time of messages reflected by the latency measurement service")
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .register(meterRegistry),
+                Timer.builder("aeron.echo.one-way")
+                        .description("Half of the round trip time, a clock independent one-way latency estimate")
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .register(meterRegistry),
+                offerFailures,
+                cpu);
+        Counter errors = meterRegistry.counter("aeron.publisher.errors");
+        this.agentRunner = new AgentRunner(
+                Configuration.agentIdleStrategy(idleStrategy, null),
+                throwable -> {
+                    errors.increment();
+                    log.error("Error in book ticker publisher", throwable);
+                },
+                null,
+                agent);
+    }
+
+    @PostConstruct
+    public void start() {
+        AgentRunner.startOnThread(agentRunner);
+    }
+
+    @Override
+    public String transport() {
+        return "aeron";
+    }
+
+    /**
+     * Encode a ticker into the ring buffer, timestamp included.
+     */
+    @Override
+    public void publish(MutableBookTicker ticker, int symbolId, String symbol, long sentAtNs) {
+        int index = ringBuffer.tryClaim(BookTickerPublisherAgent.TICKER_MSG_TYPE_ID, BookTickerLayout.BLOCK_LENGTH);
+        if (index < 0) {
+            framesDropped.increment();
+            return;
+        }
+        encoder.wrap(ringBuffer.buffer(), index)
+                .symbol(symbolId, symbol)
+                .bidPrice(ticker.getBidPrice())
+                .bidQty(ticker.getBidQty())
+                .askPrice(ticker.getAskPrice())
+                .askQty(ticker.getAskQty())
+                .updateId(ticker.getUpdateId())
+                .sequence(ticker.getSequence())
+                .timestamp(sentAtNs);
+        ringBuffer.commit(index);
+    }
+
+    /**
+     * Back-pressured once the ring is half full, well before tickers would be dropped.
+     */
+    @Override
+    public boolean isBackPressured() {
+        return ringBuffer.size() > ringBuffer.capacity() >> 1;
+    }
+
+    @PreDestroy
+    public void close() {
+        CloseHelper.quietClose(agentRunner);
+        CloseHelper.quietClose(echoSubscription);
+        for (Publication publication : publications) {
+            try {
+                if (publication != null && !publication.isClosed()) {
+                    publication.close();
+                }
+            } catch (Exception e) {
+                log.error("Error closing publication", e);
+            }
+        }
+    }
+}
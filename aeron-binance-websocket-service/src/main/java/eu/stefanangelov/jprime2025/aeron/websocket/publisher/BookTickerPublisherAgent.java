@@ -0,0 +1,120 @@
+package eu.stefanangelov.jprime2025.aeron.websocket.publisher;
+
+import eu.stefanangelov.jprime2025.core.clock.LatencyClock;
+import eu.stefanangelov.jprime2025.core.thread.CpuAffinity;
+import eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerEncoder;
+import eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout;
+import io.aeron.Publication;
+import io.aeron.Subscription;
+import io.aeron.logbuffer.FragmentHandler;
+import io.aeron.logbuffer.Header;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import org.agrona.AsciiSequenceView;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.ControlledMessageHandler;
+import org.agrona.concurrent.ringbuffer.RingBuffer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains encoded book tickers from the ring buffer and offers them, straight from the ring, to the publication of
+ * the symbol's shard.
+ * <p>
+ * Each ring record is a complete {@link BookTickerEncoder} block. A back-pressured offer aborts the read so the same
+ * ticker is retried on the next duty cycle, which keeps the websocket reader thread free of Aeron back-pressure.
+ * Queueing delay (send timestamp to offer) is recorded separately from the transport latency measured by the
+ * subscriber.
+ * <p>
+ * When an echo subscription is given, messages reflected by the latency measurement service are polled on the same
+ * thread and their round trip time is recorded against this producer's own clock, which needs no clock
+ * synchronisation between hosts.
+ * <p>
+ * A non-blank {@code cpu} pins the agent thread to that {@code taskset} CPU list when it starts.
+ */
+public class BookTickerPublisherAgent implements Agent, ControlledMessageHandler {
+
+    static final int TICKER_MSG_TYPE_ID = 1;
+
+    private final RingBuffer ringBuffer;
+    private final Publication[] publications;
+    private final SymbolSharding sharding;
+    private final Subscription echoSubscription;
+    private final LatencyClock clock;
+    private final int frameLimit;
+    private final Timer queueLatencyTimer;
+    private final Timer roundTripTimer;
+    private final Timer oneWayTimer;
+    private final Counter[] offerFailures;
+    private final String cpu;
+    private final FragmentHandler echoHandler = this::onEcho;
+    private final AsciiSequenceView symbol = new AsciiSequenceView();
+
+    public BookTickerPublisherAgent(RingBuffer ringBuffer, Publication[] publications, SymbolSharding sharding,
+                                    Subscription echoSubscription, LatencyClock clock, int frameLimit,
+                                    Timer queueLatencyTimer, Timer roundTripTimer, Timer oneWayTimer,
+                                    Counter[] offerFailures, String cpu) {
+        this.ringBuffer = ringBuffer;
+        this.publications = publications;
+        this.sharding = sharding;
+        this.echoSubscription = echoSubscription;
+        this.clock = clock;
+        this.frameLimit = frameLimit;
+        this.queueLatencyTimer = queueLatencyTimer;
+        this.roundTripTimer = roundTripTimer;
+        this.oneWayTimer = oneWayTimer;
+        this.offerFailures = offerFailures;
+        this.cpu = cpu;
+    }
+
+    @Override
+    public void onStart() {
+        if (cpu != null && !cpu.isBlank()) {
+            CpuAffinity.pinCurrentThread(cpu);
+        }
+    }
+
+    @Override
+    public int doWork() {
+        int workCount = ringBuffer.controlledRead(this, frameLimit);
+        if (echoSubscription != null) {
+            workCount += echoSubscription.poll(echoHandler, frameLimit);
+        }
+        return workCount;
+    }
+
+    @Override
+    public Action onMessage(int msgTypeId, MutableDirectBuffer buffer, int index, int length) {
+        int symbolId = buffer.getInt(index + BookTickerLayout.SYMBOL_ID_OFFSET, BookTickerLayout.BYTE_ORDER);
+        // Wrapping is free, the sharding only reads the name the first time a symbol id is seen
+        symbol.wrap(buffer, index + BookTickerLayout.SYMBOL_OFFSET,
+                buffer.getByte(index + BookTickerLayout.SYMBOL_LENGTH_OFFSET));
+        int shard = sharding.shardOf(symbolId, symbol);
+
+        long result = publications[shard].offer(buffer, index, length);
+        if (result == Publication.BACK_PRESSURED || result == Publication.ADMIN_ACTION) {
+            return Action.ABORT;
+        }
+        if (result < 0) {
+            offerFailures[shard].increment();
+        } else {
+            long sentAt = buffer.getLong(index + BookTickerLayout.TIMESTAMP_OFFSET, BookTickerLayout.BYTE_ORDER);
+            queueLatencyTimer.record(clock.nanos() - sentAt, TimeUnit.NANOSECONDS);
+        }
+        return Action.CONTINUE;
+    }
+
+    private void onEcho(DirectBuffer buffer, int offset, int length, Header header) {
+        long sentAt = buffer.getLong(offset + BookTickerLayout.TIMESTAMP_OFFSET, BookTickerLayout.BYTE_ORDER);
+        long roundTripNs = clock.nanos() - sentAt;
+        roundTripTimer.record(roundTripNs, TimeUnit.NANOSECONDS);
+        oneWayTimer.record(roundTripNs / 2, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String roleName() {
+        return "book-ticker-publisher";
+    }
+}
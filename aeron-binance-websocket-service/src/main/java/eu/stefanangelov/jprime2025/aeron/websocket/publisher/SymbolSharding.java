@@ -0,0 +1,85 @@
+package eu.stefanangelov.jprime2025.aeron.websocket.publisher;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maps symbols to Aeron stream shards, either through an explicit {@code SYMBOL=shard} mapping or by hashing the
+ * symbol name. The shard of each symbol is cached by its {@code SymbolTable} id, so lookups on the publishing thread
+ * do not allocate once a symbol has been seen.
+ */
+public class SymbolSharding {
+
+    private final int shardCount;
+    private final Map<String, Integer> mapping;
+    private int[] shardsById = new int[64];
+
+    public SymbolSharding(int shardCount, Map<String, Integer> mapping) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        mapping.forEach((symbol, shard) -> {
+            if (shard < 0 || shard >= shardCount) {
+                throw new IllegalArgumentException("Shard " + shard + " of " + symbol + " is out of range");
+            }
+        });
+        this.shardCount = shardCount;
+        this.mapping = mapping;
+        Arrays.fill(shardsById, -1);
+    }
+
+    /**
+     * Parse a mapping such as {@code BTCUSDT=0,ETHUSDT=1}. Symbols without an explicit shard are hashed.
+     *
+     * @param shardCount the number of shards
+     * @param mapping    comma separated {@code SYMBOL=shard} pairs, may be empty
+     * @return the sharding
+     * @throws IllegalArgumentException if an entry is not a {@code SYMBOL=shard} pair
+     */
+    public static SymbolSharding parse(int shardCount, String mapping) {
+        Map<String, Integer> shards = new HashMap<>();
+        for (String entry : mapping.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] symbolAndShard = entry.split("=", -1);
+            if (symbolAndShard.length != 2 || symbolAndShard[0].isBlank()) {
+                throw new IllegalArgumentException("Expected SYMBOL=shard in shard mapping: " + entry.trim());
+            }
+            int shard;
+            try {
+                shard = Integer.parseInt(symbolAndShard[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Shard is not a number in shard mapping: " + entry.trim(), e);
+            }
+            shards.put(symbolAndShard[0].trim().toUpperCase(Locale.ROOT), shard);
+        }
+        return new SymbolSharding(shardCount, shards);
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    /**
+     * @param symbolId the id of the symbol in the publisher's {@code SymbolTable}
+     * @param symbol   the symbol name, only read the first time the id is seen
+     * @return the shard of the symbol
+     */
+    public int shardOf(int symbolId, CharSequence symbol) {
+        if (symbolId >= shardsById.length) {
+            int oldLength = shardsById.length;
+            shardsById = Arrays.copyOf(shardsById, Math.max(oldLength << 1, symbolId + 1));
+            Arrays.fill(shardsById, oldLength, shardsById.length, -1);
+        }
+        int shard = shardsById[symbolId];
+        if (shard < 0) {
+            String name = symbol.toString();
+            shard = mapping.getOrDefault(name, Math.floorMod(name.hashCode(), shardCount));
+            shardsById[symbolId] = shard;
+        }
+        return shard;
+    }
+}
@@ -0,0 +1,36 @@
+package eu.stefanangelov.jprime2025.benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Takes the regular JMH command line, e.g. {@code -f 1 Codec}, and always adds
+ * the GC profiler, so every run reports allocation per operation ({@code gc.alloc.rate.norm}) and GC counts next to
+ * the timings. A hot path that starts allocating is as much a regression as one that gets slower.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+                || commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLine);
+        boolean gcProfiled = commandLine.getProfilers().stream()
+                .anyMatch(profiler -> "gc".equals(profiler.getKlass())
+                        || GCProfiler.class.getName().equals(profiler.getKlass()));
+        if (!gcProfiled) {
+            options.addProfiler(GCProfiler.class);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,124 @@
+package eu.stefanangelov.jprime2025.benchmarks.aeron;
+
+import eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerDecoder;
+import eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerEncoder;
+import eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout;
+import io.aeron.Aeron;
+import io.aeron.ExclusivePublication;
+import io.aeron.Subscription;
+import io.aeron.driver.MediaDriver;
+import io.aeron.driver.ThreadingMode;
+import io.aeron.logbuffer.BufferClaim;
+import io.aeron.logbuffer.FragmentHandler;
+import org.agrona.BufferUtil;
+import org.agrona.CloseHelper;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.BusySpinIdleStrategy;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trip of one encoded book ticker through an {@code aeron:ipc} publication and back out of a subscription on
+ * the same thread, with an embedded media driver. Compares {@code offer} from a scratch buffer against encoding
+ * straight into the log buffer with {@code tryClaim}, and gives the floor the UDP path of the services can be
+ * measured against.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class AeronIpcBenchmark {
+
+    private static final String CHANNEL = "aeron:ipc";
+    private static final int STREAM_ID = 1001;
+
+    private final UnsafeBuffer buffer = new UnsafeBuffer(
+            BufferUtil.allocateDirectAligned(BookTickerLayout.BLOCK_LENGTH, 64));
+    private final BookTickerEncoder encoder = new BookTickerEncoder();
+    private final BookTickerDecoder decoder = new BookTickerDecoder();
+    private final BufferClaim bufferClaim = new BufferClaim();
+    private MediaDriver mediaDriver;
+    private Aeron aeron;
+    private ExclusivePublication publication;
+    private Subscription subscription;
+    private FragmentHandler fragmentHandler;
+    private long sequence = 1;
+    private long received;
+
+    @Setup
+    public void setUp() {
+        mediaDriver = MediaDriver.launchEmbedded(new MediaDriver.Context()
+                .threadingMode(ThreadingMode.SHARED)
+                .sharedIdleStrategy(new BusySpinIdleStrategy())
+                .dirDeleteOnStart(true)
+                .dirDeleteOnShutdown(true));
+        aeron = Aeron.connect(new Aeron.Context().aeronDirectoryName(mediaDriver.aeronDirectoryName()));
+        publication = aeron.addExclusivePublication(CHANNEL, STREAM_ID);
+        subscription = aeron.addSubscription(CHANNEL, STREAM_ID);
+        while (!publication.isConnected() || !subscription.isConnected()) {
+            Thread.onSpinWait();
+        }
+        fragmentHandler = (fragment, offset, length, header) -> received = decoder.wrap(fragment, offset).timestamp();
+    }
+
+    @TearDown
+    public void tearDown() {
+        CloseHelper.closeAll(subscription, publication, aeron, mediaDriver);
+    }
+
+    @Benchmark
+    public long offerAndPoll() {
+        long timestamp = sequence++;
+        encode(buffer, 0, timestamp);
+        while (publication.offer(buffer, 0, BookTickerLayout.BLOCK_LENGTH) < 0) {
+            Thread.onSpinWait();
+        }
+        return pollUntil(timestamp);
+    }
+
+    @Benchmark
+    public long tryClaimAndPoll() {
+        long timestamp = sequence++;
+        while (publication.tryClaim(BookTickerLayout.BLOCK_LENGTH, bufferClaim) < 0) {
+            Thread.onSpinWait();
+        }
+        encode(bufferClaim.buffer(), bufferClaim.offset(), timestamp);
+        bufferClaim.commit();
+        return pollUntil(timestamp);
+    }
+
+    private void encode(MutableDirectBuffer target, int offset, long timestamp) {
+        encoder.wrap(target, offset)
+                .symbol(1, "BNBUSDT")
+                .bidPrice(2_535_190_000L)
+                .bidQty(3_121_000_000L)
+                .askPrice(2_536_520_000L)
+                .askQty(4_066_000_000L)
+                .updateId(400_900_217L)
+                .sequence(timestamp)
+                .timestamp(timestamp);
+    }
+
+    private long pollUntil(long timestamp) {
+        while (received != timestamp) {
+            if (subscription.poll(fragmentHandler, 1) == 0) {
+                Thread.onSpinWait();
+            }
+        }
+        return received;
+    }
+}
@@ -0,0 +1,85 @@
+package eu.stefanangelov.jprime2025.benchmarks.buffer;
+
+import org.agrona.BufferUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing the fixed part of a book ticker, five longs and an ASCII symbol, through an {@link UnsafeBuffer} as the
+ * Aeron encoder does, against heap and direct {@link ByteBuffer}s as used by the Kafka serializer. The symbol is
+ * written both byte by byte, like the encoders, and with {@link UnsafeBuffer#putStringWithoutLengthAscii}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class BufferWriteBenchmark {
+
+    private static final int CAPACITY = 128;
+    private static final String SYMBOL = "BNBUSDT";
+
+    private final UnsafeBuffer unsafeBuffer = new UnsafeBuffer(BufferUtil.allocateDirectAligned(CAPACITY, 64));
+    private final ByteBuffer directBuffer = ByteBuffer.allocateDirect(CAPACITY).order(ByteOrder.LITTLE_ENDIAN);
+    private final ByteBuffer heapBuffer = ByteBuffer.allocate(CAPACITY).order(ByteOrder.LITTLE_ENDIAN);
+    private long value = 2_535_190_000L;
+
+    @Benchmark
+    public UnsafeBuffer unsafeBufferLongs() {
+        long v = value++;
+        unsafeBuffer.putLong(0, v, ByteOrder.LITTLE_ENDIAN);
+        unsafeBuffer.putLong(8, v + 1, ByteOrder.LITTLE_ENDIAN);
+        unsafeBuffer.putLong(16, v + 2, ByteOrder.LITTLE_ENDIAN);
+        unsafeBuffer.putLong(24, v + 3, ByteOrder.LITTLE_ENDIAN);
+        unsafeBuffer.putLong(32, v + 4, ByteOrder.LITTLE_ENDIAN);
+        return unsafeBuffer;
+    }
+
+    @Benchmark
+    public ByteBuffer directByteBufferLongs() {
+        long v = value++;
+        directBuffer.putLong(0, v);
+        directBuffer.putLong(8, v + 1);
+        directBuffer.putLong(16, v + 2);
+        directBuffer.putLong(24, v + 3);
+        directBuffer.putLong(32, v + 4);
+        return directBuffer;
+    }
+
+    @Benchmark
+    public ByteBuffer heapByteBufferLongs() {
+        long v = value++;
+        heapBuffer.putLong(0, v);
+        heapBuffer.putLong(8, v + 1);
+        heapBuffer.putLong(16, v + 2);
+        heapBuffer.putLong(24, v + 3);
+        heapBuffer.putLong(32, v + 4);
+        return heapBuffer;
+    }
+
+    @Benchmark
+    public UnsafeBuffer unsafeBufferSymbolBytes() {
+        for (int i = 0, length = SYMBOL.length(); i < length; i++) {
+            unsafeBuffer.putByte(45 + i, (byte) SYMBOL.charAt(i));
+        }
+        return unsafeBuffer;
+    }
+
+    @Benchmark
+    public int unsafeBufferSymbolAscii() {
+        return unsafeBuffer.putStringWithoutLengthAscii(45, SYMBOL);
+    }
+}
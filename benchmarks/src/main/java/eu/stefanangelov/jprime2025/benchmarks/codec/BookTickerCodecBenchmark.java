@@ -0,0 +1,119 @@
+package eu.stefanangelov.jprime2025.benchmarks.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.stefanangelov.jprime2025.core.model.MutableBookTicker;
+import eu.stefanangelov.jprime2025.core.parser.BookTickerParser;
+import eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerDecoder;
+import eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerEncoder;
+import eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout;
+import eu.stefanangelov.jprime2025.core.transport.kafka.BookTickerSerializer;
+import eu.stefanangelov.jprime2025.kafka.latency.codec.BookTickerDeserializer;
+import eu.stefanangelov.jprime2025.kafka.websocket.codec.BookTickerJsonWriter;
+import eu.stefanangelov.jprime2025.kafka.websocket.model.BookTicker;
+import org.agrona.BufferUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning one book ticker into bytes and back with each encoding in use: Jackson data binding, the hand
+ * written JSON writer, the Kafka binary serde and the Aeron flyweights over an {@link UnsafeBuffer}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class BookTickerCodecBenchmark {
+
+    private static final String FRAME = "{\"u\":400900217,\"s\":\"BNBUSDT\",\"b\":\"25.35190000\","
+            + "\"B\":\"31.21000000\",\"a\":\"25.36520000\",\"A\":\"40.66000000\"}";
+    private static final String TOPIC = "book-ticker";
+    private static final long TIMESTAMP = 1_700_000_000_000_000_000L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BookTickerJsonWriter jsonWriter = new BookTickerJsonWriter();
+    private final BookTickerSerializer serializer = new BookTickerSerializer();
+    private final BookTickerDeserializer deserializer = new BookTickerDeserializer();
+    private final BookTickerEncoder encoder = new BookTickerEncoder();
+    private final BookTickerDecoder decoder = new BookTickerDecoder();
+    private final MutableBookTicker ticker = new MutableBookTicker();
+    private final UnsafeBuffer buffer = new UnsafeBuffer(
+            BufferUtil.allocateDirectAligned(BookTickerLayout.BLOCK_LENGTH * 2, 64));
+    private BookTicker pojo;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() throws Exception {
+        new BookTickerParser().parse(FRAME, ticker);
+        pojo = objectMapper.readValue(FRAME, BookTicker.class);
+        pojo.setTimestamp(TIMESTAMP);
+        json = objectMapper.writeValueAsBytes(pojo);
+        binary = serializer.serialize(TOPIC, ticker);
+        flyweightEncode();
+    }
+
+    @Benchmark
+    public byte[] jacksonEncode() throws Exception {
+        return objectMapper.writeValueAsBytes(pojo);
+    }
+
+    @Benchmark
+    public BookTicker jacksonDecode() throws Exception {
+        return objectMapper.readValue(json, BookTicker.class);
+    }
+
+    @Benchmark
+    public byte[] jsonWriterEncode() {
+        return jsonWriter.write(ticker);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return serializer.serialize(TOPIC, ticker);
+    }
+
+    @Benchmark
+    public BookTicker binaryDecode() {
+        return deserializer.deserialize(TOPIC, binary);
+    }
+
+    @Benchmark
+    public BookTickerEncoder flyweightEncode() {
+        return encoder.wrap(buffer, 0)
+                .symbol(1, ticker.getSymbol())
+                .bidPrice(ticker.getBidPrice())
+                .bidQty(ticker.getBidQty())
+                .askPrice(ticker.getAskPrice())
+                .askQty(ticker.getAskQty())
+                .updateId(ticker.getUpdateId())
+                .sequence(1)
+                .timestamp(TIMESTAMP);
+    }
+
+    @Benchmark
+    public void flyweightDecode(Blackhole blackhole) {
+        decoder.wrap(buffer, 0);
+        blackhole.consume(decoder.symbolId());
+        blackhole.consume(decoder.bidPrice());
+        blackhole.consume(decoder.bidQty());
+        blackhole.consume(decoder.askPrice());
+        blackhole.consume(decoder.askQty());
+        blackhole.consume(decoder.updateId());
+        blackhole.consume(decoder.sequence());
+        blackhole.consume(decoder.timestamp());
+    }
+}
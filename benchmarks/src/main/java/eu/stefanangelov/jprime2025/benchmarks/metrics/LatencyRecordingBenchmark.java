@@ -0,0 +1,97 @@
+package eu.stefanangelov.jprime2025.benchmarks.metrics;
+
+import eu.stefanangelov.jprime2025.core.metrics.LatencyRecorder;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.HdrHistogram.Recorder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What recording one latency costs the receiving thread: Micrometer timers on the Prometheus registry the services
+ * use, configured like the service timers with client side percentiles, plain and with a percentile histogram,
+ * against a bare HdrHistogram {@link Recorder} and the {@link LatencyRecorder} wrapping one.
+ * <p>
+ * The state is shared, so running with {@code -t} threads measures the cost under contention.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class LatencyRecordingBenchmark {
+
+    private PrometheusMeterRegistry meterRegistry;
+    private Timer plainTimer;
+    private Timer percentileTimer;
+    private Timer histogramTimer;
+    private Recorder recorder;
+    private LatencyRecorder latencyRecorder;
+    private long latencyNs = 25_000;
+
+    @Setup
+    public void setUp() throws Exception {
+        meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        plainTimer = Timer.builder("bench.plain").register(meterRegistry);
+        percentileTimer = Timer.builder("bench.percentiles")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        histogramTimer = Timer.builder("bench.histogram")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        recorder = new Recorder(60_000_000_000L, 3);
+        latencyRecorder = new LatencyRecorder(meterRegistry, "bench", 0, 60_000_000_000L, 3,
+                TimeUnit.HOURS.toMillis(1), System.getProperty("java.io.tmpdir"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        latencyRecorder.close();
+        meterRegistry.close();
+    }
+
+    /**
+     * Vary the value a little so it does not always hit the same bucket.
+     */
+    private long nextLatency() {
+        return 20_000 + (latencyNs++ & 0x3FFF);
+    }
+
+    @Benchmark
+    public void micrometerTimer() {
+        plainTimer.record(nextLatency(), TimeUnit.NANOSECONDS);
+    }
+
+    @Benchmark
+    public void micrometerTimerWithPercentiles() {
+        percentileTimer.record(nextLatency(), TimeUnit.NANOSECONDS);
+    }
+
+    @Benchmark
+    public void micrometerTimerWithHistogram() {
+        histogramTimer.record(nextLatency(), TimeUnit.NANOSECONDS);
+    }
+
+    @Benchmark
+    public void hdrRecorder() {
+        recorder.recordValue(nextLatency());
+    }
+
+    @Benchmark
+    public void latencyRecorder() {
+        latencyRecorder.record(nextLatency());
+    }
+}
@@ -0,0 +1,70 @@
+package eu.stefanangelov.jprime2025.benchmarks.parser;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.stefanangelov.jprime2025.core.codec.SymbolTable;
+import eu.stefanangelov.jprime2025.core.model.MutableBookTicker;
+import eu.stefanangelov.jprime2025.core.parser.BookTickerParser;
+import eu.stefanangelov.jprime2025.kafka.websocket.model.BookTicker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The websocket thread's share of every tick: parsing the Binance frame. The allocation free
+ * {@link BookTickerParser}, with and without the {@link SymbolTable} lookup the ingest does next, against Jackson
+ * tree and data binding parses of the same frame.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class BookTickerParserBenchmark {
+
+    private static final String FRAME = "{\"u\":400900217,\"s\":\"BNBUSDT\",\"b\":\"25.35190000\","
+            + "\"B\":\"31.21000000\",\"a\":\"25.36520000\",\"A\":\"40.66000000\"}";
+    private static final String COMBINED_FRAME = "{\"stream\":\"bnbusdt@bookTicker\",\"data\":" + FRAME + "}";
+
+    private final BookTickerParser parser = new BookTickerParser();
+    private final MutableBookTicker ticker = new MutableBookTicker();
+    private final SymbolTable symbolTable = new SymbolTable(64);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Benchmark
+    public MutableBookTicker parse() {
+        parser.parse(FRAME, ticker);
+        return ticker;
+    }
+
+    @Benchmark
+    public MutableBookTicker parseCombinedStream() {
+        parser.parse(COMBINED_FRAME, ticker);
+        return ticker;
+    }
+
+    @Benchmark
+    public int parseAndResolveSymbol() {
+        parser.parse(FRAME, ticker);
+        return symbolTable.idOf(ticker.getSymbol());
+    }
+
+    @Benchmark
+    public JsonNode jacksonTree() throws Exception {
+        return objectMapper.readTree(FRAME);
+    }
+
+    @Benchmark
+    public BookTicker jacksonDataBind() throws Exception {
+        return objectMapper.readValue(FRAME, BookTicker.class);
+    }
+}
@@ -0,0 +1,49 @@
+package eu.stefanangelov.jprime2025.core.book;
+
+import eu.stefanangelov.jprime2025.core.codec.FixedPoint;
+import eu.stefanangelov.jprime2025.core.model.MutableBookTicker;
+import lombok.Getter;
+
+/**
+ * Reusable copy of one symbol's top of book, filled by {@link TopOfBook#read}. Prices and quantities are fixed-point
+ * longs scaled by {@link FixedPoint#SCALE}.
+ */
+@Getter
+public class BookSnapshot {
+    private long version;
+    private int symbolId;
+    private String symbol;
+    private long updateId;
+    private long bidPrice;
+    private long bidQty;
+    private long askPrice;
+    private long askQty;
+    private long timestampNs;
+
+    void set(long version, int symbolId, String symbol, long updateId, long bidPrice, long bidQty, long askPrice,
+             long askQty, long timestampNs) {
+        this.version = version;
+        this.symbolId = symbolId;
+        this.symbol = symbol;
+        this.updateId = updateId;
+        this.bidPrice = bidPrice;
+        this.bidQty = bidQty;
+        this.askPrice = askPrice;
+        this.askQty = askQty;
+        this.timestampNs = timestampNs;
+    }
+
+    /**
+     * Copy the snapshot into a ticker, e.g. to publish it.
+     *
+     * @param ticker the ticker to overwrite
+     */
+    public void copyTo(MutableBookTicker ticker) {
+        ticker.setSymbol(symbol, 0, symbol.length());
+        ticker.setUpdateId(updateId);
+        ticker.setBidPrice(bidPrice);
+        ticker.setBidQty(bidQty);
+        ticker.setAskPrice(askPrice);
+        ticker.setAskQty(askQty);
+    }
+}
@@ -0,0 +1,137 @@
+package eu.stefanangelov.jprime2025.core.book;
+
+import eu.stefanangelov.jprime2025.core.model.MutableBookTicker;
+import eu.stefanangelov.jprime2025.core.spi.TickPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publishes the latest tick per symbol from its own thread, used with {@code book.conflation=true}.
+ * <p>
+ * The ingest thread only stores a tick in the {@link TopOfBook} and flags its symbol as pending. The
+ * {@code tick-conflator} thread walks the pending symbols round robin and publishes each symbol's latest state. While
+ * the publisher keeps up every tick goes out; when it falls behind, or reports {@link TickPublisher#isBackPressured},
+ * further ticks of a pending symbol overwrite the stored state instead of queueing up, counted in
+ * {@code book.ticks.conflated}. A bursty symbol then costs one publish per round, and the others still get their
+ * turn.
+ * <p>
+ * A conflated tick keeps the send timestamp of the latest tick it replaces, so latency is measured from that tick.
+ * Published ticks are numbered per symbol here, so conflation does not show up as lost ticks downstream.
+ * <p>
+ * Publishing takes the ingest pipeline's publish lock: symbols beyond {@code book.max-symbols} are still published
+ * by the ingest thread, and a publisher only takes one ticker at a time.
+ */
+@Slf4j
+public class TickConflator {
+
+    private static final int SPIN_LIMIT = 1000;
+    private static final long PARK_NS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final TopOfBook book;
+    private final TickPublisher publisher;
+    private final Object publishLock;
+    private final AtomicIntegerArray pending;
+    private final long[] sequences;
+    private final long[] publishedVersions;
+    private final Counter conflated;
+    private final Counter published;
+    private final Counter errors;
+    private final BookSnapshot snapshot = new BookSnapshot();
+    private final MutableBookTicker ticker = new MutableBookTicker();
+    private volatile boolean running;
+    private Thread thread;
+    private int cursor;
+
+    public TickConflator(TopOfBook book, TickPublisher publisher, Object publishLock, MeterRegistry meterRegistry,
+                         Counter published, Counter errors) {
+        this.book = book;
+        this.publisher = publisher;
+        this.publishLock = publishLock;
+        this.pending = new AtomicIntegerArray(book.capacity());
+        this.sequences = new long[book.capacity()];
+        this.publishedVersions = new long[book.capacity()];
+        this.conflated = meterRegistry.counter("book.ticks.conflated");
+        this.published = published;
+        this.errors = errors;
+    }
+
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "tick-conflator");
+        thread.start();
+        log.info("Conflating book tickers per symbol before publishing via {}", publisher.transport());
+    }
+
+    /**
+     * Flag a symbol whose latest tick was just stored in the book. Called on the ingest thread.
+     *
+     * @param symbolId the dense symbol id
+     */
+    public void onUpdate(int symbolId) {
+        // An atomic swap on both threads, so a tick is never stored after the conflator read the book
+        // while it still sees the symbol as pending
+        if (pending.getAndSet(symbolId, 1) == 1) {
+            conflated.increment();
+        }
+    }
+
+    private void run() {
+        int idle = 0;
+        while (running) {
+            if (!publisher.isBackPressured() && publishNext()) {
+                idle = 0;
+            } else if (++idle < SPIN_LIMIT) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(PARK_NS);
+            }
+        }
+    }
+
+    /**
+     * Publish the next pending symbol after the one published last.
+     *
+     * @return false if no symbol was pending
+     */
+    private boolean publishNext() {
+        int size = book.size();
+        for (int i = 0; i < size; i++) {
+            int symbolId = cursor;
+            cursor = symbolId + 1 < size ? symbolId + 1 : 0;
+            if (pending.get(symbolId) == 1 && pending.getAndSet(symbolId, 0) == 1
+                    && book.read(symbolId, snapshot)) {
+                // A tick stored between clearing the flag and the read is in this snapshot but flags the symbol
+                // again; the next round then reads the same version and must not publish it twice
+                if (snapshot.getVersion() == publishedVersions[symbolId]) {
+                    continue;
+                }
+                publishedVersions[symbolId] = snapshot.getVersion();
+                snapshot.copyTo(ticker);
+                ticker.setSequence(++sequences[symbolId]);
+                try {
+                    synchronized (publishLock) {
+                        publisher.publish(ticker, symbolId, snapshot.getSymbol(), snapshot.getTimestampNs());
+                    }
+                    published.increment();
+                } catch (Exception e) {
+                    errors.increment();
+                    log.error("Error publishing conflated book ticker: {}", snapshot.getSymbol(), e);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void close() throws InterruptedException {
+        if (thread != null) {
+            running = false;
+            thread.join(5000);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package eu.stefanangelov.jprime2025.core.book;
+
+import eu.stefanangelov.jprime2025.core.codec.FixedPoint;
+import eu.stefanangelov.jprime2025.core.model.MutableBookTicker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latest top of book per symbol, updated by the ingest thread on every book ticker and readable from any thread
+ * without locks.
+ * <p>
+ * The state lives in one {@code long[]} indexed by the ingest pipeline's dense symbol id, eight longs (one cache line)
+ * per symbol: a sequence followed by the update id, bid and ask price and quantity and the send timestamp. The single
+ * writer makes the sequence odd, writes the fields and makes it even again; a reader copies the fields and retries if
+ * the sequence was odd or moved in the meantime (a seqlock). A sequence of 0 means the symbol has no tick yet.
+ * <p>
+ * Up to {@code book.max-symbols} symbols are kept; ticks of further symbols are still published, but not stored.
+ * Snapshots are served under {@code /book} as JSON or, with {@code Accept: application/octet-stream}, in the binary
+ * layout of {@link #toBinary}.
+ */
+public class TopOfBook {
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int SLOT_SHIFT = 3;
+    private static final int SEQUENCE = 0;
+    private static final int UPDATE_ID = 1;
+    private static final int BID_PRICE = 2;
+    private static final int BID_QTY = 3;
+    private static final int ASK_PRICE = 4;
+    private static final int ASK_QTY = 5;
+    private static final int TIMESTAMP = 6;
+    // symbol id, six longs and the symbol length, followed by the ASCII symbol
+    private static final int ENTRY_HEADER_LENGTH = Integer.BYTES + 6 * Long.BYTES + 1;
+
+    private final int capacity;
+    private final long[] slots;
+    private final String[] names;
+    private final Map<String, Integer> idsByName = new ConcurrentHashMap<>();
+    private final Counter overflow;
+    private volatile int size;
+
+    public TopOfBook(MeterRegistry meterRegistry, @Value("${book.max-symbols:4096}") int capacity) {
+        this.capacity = capacity;
+        this.slots = new long[capacity << SLOT_SHIFT];
+        this.names = new String[capacity];
+        this.overflow = meterRegistry.counter("book.symbols.overflow");
+        meterRegistry.gauge("book.symbols", this, TopOfBook::size);
+    }
+
+    /**
+     * @return the number of symbols that can be stored, {@code book.max-symbols}
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of symbol ids seen so far, the upper bound for iterating ids
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Store a ticker as the latest state of its symbol. Only ever called by one ingest thread at a time.
+     *
+     * @param symbolId    the dense symbol id
+     * @param symbol      the interned symbol name
+     * @param ticker      the parsed ticker
+     * @param timestampNs the send timestamp it is published with
+     * @return false if the symbol is beyond {@code book.max-symbols} and was not stored
+     */
+    public boolean update(int symbolId, String symbol, MutableBookTicker ticker, long timestampNs) {
+        if (symbolId >= capacity) {
+            overflow.increment();
+            return false;
+        }
+        if (names[symbolId] == null) {
+            // Published to readers by the release of the sequence below
+            names[symbolId] = symbol;
+            idsByName.put(symbol, symbolId);
+            size = symbolId + 1;
+        }
+        int base = symbolId << SLOT_SHIFT;
+        long sequence = slots[base + SEQUENCE];
+        SLOTS.setOpaque(slots, base + SEQUENCE, sequence + 1);
+        VarHandle.storeStoreFence();
+        slots[base + UPDATE_ID] = ticker.getUpdateId();
+        slots[base + BID_PRICE] = ticker.getBidPrice();
+        slots[base + BID_QTY] = ticker.getBidQty();
+        slots[base + ASK_PRICE] = ticker.getAskPrice();
+        slots[base + ASK_QTY] = ticker.getAskQty();
+        slots[base + TIMESTAMP] = timestampNs;
+        SLOTS.setRelease(slots, base + SEQUENCE, sequence + 2);
+        return true;
+    }
+
+    /**
+     * Copy the latest state of a symbol into a snapshot, from any thread.
+     *
+     * @param symbolId the dense symbol id
+     * @param snapshot the snapshot to overwrite
+     * @return false if the symbol has no tick stored
+     */
+    public boolean read(int symbolId, BookSnapshot snapshot) {
+        if (symbolId < 0 || symbolId >= capacity) {
+            return false;
+        }
+        int base = symbolId << SLOT_SHIFT;
+        while (true) {
+            long sequence = (long) SLOTS.getAcquire(slots, base + SEQUENCE);
+            if (sequence == 0) {
+                return false;
+            }
+            if ((sequence & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            long updateId = slots[base + UPDATE_ID];
+            long bidPrice = slots[base + BID_PRICE];
+            long bidQty = slots[base + BID_QTY];
+            long askPrice = slots[base + ASK_PRICE];
+            long askQty = slots[base + ASK_QTY];
+            long timestampNs = slots[base + TIMESTAMP];
+            VarHandle.loadLoadFence();
+            if ((long) SLOTS.getOpaque(slots, base + SEQUENCE) == sequence) {
+                snapshot.set(sequence, symbolId, names[symbolId], updateId, bidPrice, bidQty, askPrice, askQty,
+                        timestampNs);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param symbol the symbol name, e.g. {@code BTCUSDT}
+     * @return the dense id of the symbol, -1 if it has no tick stored
+     */
+    public int idOf(String symbol) {
+        Integer id = idsByName.get(symbol);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Write all symbols as little-endian binary: the entry count as an int, then per symbol its id as an int, the
+     * update id, bid price, bid quantity, ask price, ask quantity and timestamp as longs, the symbol length as a byte
+     * and the ASCII symbol.
+     *
+     * @return the encoded snapshot
+     */
+    public byte[] toBinary() {
+        List<BookSnapshot> snapshots = snapshots();
+        int length = Integer.BYTES;
+        for (BookSnapshot snapshot : snapshots) {
+            length += ENTRY_HEADER_LENGTH + snapshot.getSymbol().length();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(snapshots.size());
+        for (BookSnapshot snapshot : snapshots) {
+            byte[] symbol = snapshot.getSymbol().getBytes(StandardCharsets.US_ASCII);
+            buffer.putInt(snapshot.getSymbolId())
+                    .putLong(snapshot.getUpdateId())
+                    .putLong(snapshot.getBidPrice())
+                    .putLong(snapshot.getBidQty())
+                    .putLong(snapshot.getAskPrice())
+                    .putLong(snapshot.getAskQty())
+                    .putLong(snapshot.getTimestampNs())
+                    .put((byte) symbol.length)
+                    .put(symbol);
+        }
+        return buffer.array();
+    }
+
+    private List<BookSnapshot> snapshots() {
+        int count = size;
+        List<BookSnapshot> snapshots = new ArrayList<>(count);
+        for (int symbolId = 0; symbolId < count; symbolId++) {
+            BookSnapshot snapshot = new BookSnapshot();
+            if (read(symbolId, snapshot)) {
+                snapshots.add(snapshot);
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * Query the latest top of book.
+     */
+    @RestController
+    @RequestMapping("/book")
+    public static class BookController {
+        private final TopOfBook topOfBook;
+
+        public BookController(TopOfBook topOfBook) {
+            this.topOfBook = topOfBook;
+        }
+
+        @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+        public List<Quote> all() {
+            return topOfBook.snapshots().stream().map(Quote::of).toList();
+        }
+
+        @GetMapping(produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+        public byte[] allBinary() {
+            return topOfBook.toBinary();
+        }
+
+        @GetMapping("/{symbol}")
+        public ResponseEntity<Quote> symbol(@PathVariable String symbol) {
+            BookSnapshot snapshot = new BookSnapshot();
+            if (!topOfBook.read(topOfBook.idOf(symbol.toUpperCase(Locale.ROOT)), snapshot)) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(Quote.of(snapshot));
+        }
+    }
+
+    public record Quote(String symbol, long updateId, BigDecimal bidPrice, BigDecimal bidQty, BigDecimal askPrice,
+                        BigDecimal askQty, long timestampNs) {
+
+        static Quote of(BookSnapshot snapshot) {
+            return new Quote(snapshot.getSymbol(), snapshot.getUpdateId(), decimal(snapshot.getBidPrice()),
+                    decimal(snapshot.getBidQty()), decimal(snapshot.getAskPrice()), decimal(snapshot.getAskQty()),
+                    snapshot.getTimestampNs());
+        }
+
+        private static BigDecimal decimal(long scaled) {
+            return BigDecimal.valueOf(scaled, FixedPoint.DECIMALS);
+        }
+    }
+}
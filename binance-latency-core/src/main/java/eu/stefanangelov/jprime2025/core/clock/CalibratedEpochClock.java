@@ -0,0 +1,63 @@
+package eu.stefanangelov.jprime2025.core.clock;
+
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Epoch nanosecond clock built from {@link System#nanoTime()} plus an offset calibrated against the wall clock.
+ * <p>
+ * {@code System.nanoTime()} is cheap and precise but has an arbitrary origin per JVM, while {@link Instant#now()} is
+ * tied to the host clock but allocates. The offset between the two is re-sampled on a background thread and
+ * published through a volatile field, so the clock follows NTP/PTP adjustments of the host while {@link #nanos()}
+ * stays a single read and add on the hot path.
+ */
+public final class CalibratedEpochClock implements LatencyClock, AutoCloseable {
+
+    private static final int CALIBRATION_SAMPLES = 3;
+
+    private final long staticOffsetNs;
+    private final ScheduledExecutorService scheduler;
+    private volatile long offsetNs;
+
+    public CalibratedEpochClock(long staticOffsetNs, long recalibrationIntervalNs) {
+        this.staticOffsetNs = staticOffsetNs;
+        calibrate();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "latency-clock-calibration");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::calibrate, recalibrationIntervalNs, recalibrationIntervalNs,
+                TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public long nanos() {
+        return System.nanoTime() + offsetNs;
+    }
+
+    /**
+     * Take the offset from the sample with the narrowest {@code nanoTime} window around {@code Instant.now()}.
+     */
+    private void calibrate() {
+        long bestOffset = 0;
+        long bestWindow = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_SAMPLES; i++) {
+            long before = System.nanoTime();
+            Instant now = Instant.now();
+            long after = System.nanoTime();
+            if (after - before < bestWindow) {
+                bestWindow = after - before;
+                bestOffset = now.getEpochSecond() * 1_000_000_000L + now.getNano() - (before + bestWindow / 2);
+            }
+        }
+        offsetNs = bestOffset + staticOffsetNs;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+    }
+}
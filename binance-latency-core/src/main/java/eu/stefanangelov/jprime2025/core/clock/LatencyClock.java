@@ -0,0 +1,36 @@
+package eu.stefanangelov.jprime2025.core.clock;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Source of the timestamps attached by the producer and compared by the latency measurement service.
+ * Both sides must be configured with the same {@code latency.clock}.
+ */
+@FunctionalInterface
+public interface LatencyClock {
+
+    /**
+     * @return the current time in nanoseconds
+     */
+    long nanos();
+
+    /**
+     * Create a clock by name.
+     * <ul>
+     *     <li>{@code monotonic} - {@link System#nanoTime()}, only comparable when producer and consumer share a JVM
+     *     origin, i.e. never across pods</li>
+     *     <li>{@code epoch} - {@link CalibratedEpochClock}, comparable across hosts whose clocks are synchronised</li>
+     * </ul>
+     *
+     * @param type     the clock name
+     * @param offsetNs static offset added to epoch timestamps to compensate a known skew between hosts
+     * @return the clock
+     */
+    static LatencyClock of(String type, long offsetNs) {
+        return switch (type) {
+            case "monotonic" -> System::nanoTime;
+            case "epoch" -> new CalibratedEpochClock(offsetNs, TimeUnit.SECONDS.toNanos(1));
+            default -> throw new IllegalArgumentException("Unknown latency clock: " + type);
+        };
+    }
+}
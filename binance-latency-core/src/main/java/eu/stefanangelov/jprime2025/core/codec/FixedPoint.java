@@ -0,0 +1,106 @@
+package eu.stefanangelov.jprime2025.core.codec;
+
+/**
+ * Conversion of Binance decimal strings to longs scaled by {@link #SCALE}.
+ * Binance quotes prices and quantities with at most eight decimals, so the conversion is exact.
+ */
+public final class FixedPoint {
+
+    public static final int DECIMALS = 8;
+    public static final long SCALE = 100_000_000L;
+
+    private FixedPoint() {
+    }
+
+    /**
+     * Parse a non-negative decimal such as {@code "67321.01000000"} without allocating.
+     *
+     * @param value the decimal text
+     * @return the value multiplied by {@link #SCALE}, digits beyond {@link #DECIMALS} are truncated
+     */
+    public static long parse(CharSequence value) {
+        return parse(value, 0, value.length());
+    }
+
+    /**
+     * Parse the non-negative decimal found in {@code value[start, end)} without allocating.
+     *
+     * @param value the text holding the decimal
+     * @param start index of the first character
+     * @param end   index after the last character
+     * @return the value multiplied by {@link #SCALE}, digits beyond {@link #DECIMALS} are truncated
+     * @throws NumberFormatException if the text is not a decimal or does not fit a long once scaled
+     */
+    public static long parse(CharSequence value, int start, int end) {
+        long result = 0;
+        int decimals = -1;
+        boolean digits = false;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c == '.') {
+                if (decimals >= 0) {
+                    throw invalid("Invalid decimal", value, start, end);
+                }
+                decimals = 0;
+            } else if (c >= '0' && c <= '9') {
+                digits = true;
+                if (decimals == DECIMALS) {
+                    // Truncated, but still has to be a digit
+                    continue;
+                }
+                if (result > (Long.MAX_VALUE - (c - '0')) / 10) {
+                    throw invalid("Decimal out of range", value, start, end);
+                }
+                result = result * 10 + (c - '0');
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else {
+                throw invalid("Invalid decimal", value, start, end);
+            }
+        }
+        if (!digits) {
+            throw invalid("Invalid decimal", value, start, end);
+        }
+        for (int i = Math.max(decimals, 0); i < DECIMALS; i++) {
+            if (result > Long.MAX_VALUE / 10) {
+                throw invalid("Decimal out of range", value, start, end);
+            }
+            result *= 10;
+        }
+        return result;
+    }
+
+    private static NumberFormatException invalid(String reason, CharSequence value, int start, int end) {
+        return new NumberFormatException(reason + ": \"" + value.subSequence(start, end) + "\"");
+    }
+
+    /**
+     * Write a scaled value as ASCII with exactly {@link #DECIMALS} decimals, the way Binance quotes it.
+     *
+     * @param value  the scaled value
+     * @param dst    the destination array
+     * @param offset index of the first byte to write
+     * @return the index after the last byte written
+     */
+    public static int format(long value, byte[] dst, int offset) {
+        long integer = value / SCALE;
+        long fraction = value % SCALE;
+        int digits = 1;
+        for (long i = integer; i >= 10; i /= 10) {
+            digits++;
+        }
+        int position = offset + digits;
+        do {
+            dst[--position] = (byte) ('0' + integer % 10);
+            integer /= 10;
+        } while (integer > 0);
+        position = offset + digits;
+        dst[position++] = '.';
+        for (int i = DECIMALS - 1; i >= 0; i--) {
+            dst[position + i] = (byte) ('0' + fraction % 10);
+            fraction /= 10;
+        }
+        return position + DECIMALS;
+    }
+}
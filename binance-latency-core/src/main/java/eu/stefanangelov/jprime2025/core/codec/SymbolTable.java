@@ -0,0 +1,87 @@
+package eu.stefanangelov.jprime2025.core.codec;
+
+import java.util.Arrays;
+
+/**
+ * Assigns dense ids to symbols in order of first appearance.
+ * Lookups of known symbols do not allocate. Not thread safe, it is owned by the publishing thread.
+ */
+public final class SymbolTable {
+
+    private String[] names;
+    private int[] ids;
+    private String[] namesById;
+    private int size;
+
+    public SymbolTable(int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(initialCapacity, 8) - 1) << 1;
+        this.names = new String[capacity];
+        this.ids = new int[capacity];
+        this.namesById = new String[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param id an id previously returned by {@link #idOf(CharSequence)}
+     * @return the symbol name for the id
+     */
+    public String nameOf(int id) {
+        return namesById[id];
+    }
+
+    /**
+     * Return the id of the given symbol, assigning the next free id on first sight.
+     *
+     * @param symbol the symbol name
+     * @return the dense id of the symbol
+     */
+    public int idOf(CharSequence symbol) {
+        int mask = names.length - 1;
+        int index = hash(symbol) & mask;
+        while (names[index] != null) {
+            if (CharSequence.compare(names[index], symbol) == 0) {
+                return ids[index];
+            }
+            index = (index + 1) & mask;
+        }
+        int id = size++;
+        names[index] = symbol.toString();
+        ids[index] = id;
+        namesById[id] = names[index];
+        if (size > names.length >> 1) {
+            rehash(names.length << 1);
+        }
+        return id;
+    }
+
+    private void rehash(int capacity) {
+        String[] oldNames = names;
+        int[] oldIds = ids;
+        names = new String[capacity];
+        ids = new int[capacity];
+        namesById = Arrays.copyOf(namesById, capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldNames.length; i++) {
+            if (oldNames[i] != null) {
+                int index = hash(oldNames[i]) & mask;
+                while (names[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                names[index] = oldNames[i];
+                ids[index] = oldIds[i];
+            }
+        }
+        Arrays.fill(oldNames, null);
+    }
+
+    private static int hash(CharSequence symbol) {
+        int hash = 0;
+        for (int i = 0, length = symbol.length(); i < length; i++) {
+            hash = 31 * hash + symbol.charAt(i);
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,16 @@
+package eu.stefanangelov.jprime2025.core.config;
+
+import eu.stefanangelov.jprime2025.core.clock.LatencyClock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ClockConfig {
+
+    @Bean
+    public LatencyClock latencyClock(@Value("${latency.clock:epoch}") String clock,
+                                     @Value("${latency.clock-offset-ns:0}") long clockOffsetNs) {
+        return LatencyClock.of(clock, clockOffsetNs);
+    }
+}
@@ -0,0 +1,320 @@
+package eu.stefanangelov.jprime2025.core.ingest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.stefanangelov.jprime2025.core.replay.FrameCapture;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.handshake.ServerHandshake;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One combined-stream websocket connection to Binance, subscribed to the book ticker streams of its share of the
+ * pairs. Frames are read on the connection's own thread, appended to the {@link FrameCapture} when capture is enabled
+ * and parsed on that thread by its own {@link TickIngest.Lane}. Managed by the {@link BinanceConnectionManager}.
+ * <p>
+ * Subscription changes only touch the pending sets here; the shared {@code binance-control} thread sends them as
+ * {@code SUBSCRIBE} and {@code UNSUBSCRIBE} requests of up to {@code binance.control.batch-size} streams, at most one
+ * request per {@value #SEND_INTERVAL_MS} ms to stay below Binance's five messages per second. Every request has its
+ * own id and stays in flight until Binance answers it ({@code binance.control.confirmed} or
+ * {@code binance.control.rejected}) or {@code binance.control.timeout-ms} passes ({@code binance.control.timeouts}).
+ * The reader thread only recognizes a response and queues it to the control thread, it never waits for the control
+ * path.
+ * <p>
+ * When the connection closes, or fails to open, it reconnects after a random delay between 0 and a backoff that
+ * doubles with every failed attempt up to a maximum, so a Binance outage is not answered by all connections at the
+ * same moment. Reconnects run on the {@code binance-reconnect} threads, so a slow one does not hold up the control
+ * requests of the other connections. Once open again it subscribes to all of its pairs, including the ones added
+ * since it started.
+ */
+@Slf4j
+public class BinanceConnection extends WebSocketClient {
+
+    static final long SEND_INTERVAL_MS = 250;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int index;
+    private final String feed;
+    private final TickIngest.Lane lane;
+    private final FrameCapture capture;
+    private final Settings settings;
+    private final Counter errors;
+    private final Counter reconnects;
+    private final Counter confirmed;
+    private final Counter rejected;
+    private final Counter timeouts;
+    private final Set<String> pairs = new TreeSet<>();
+    private final Set<String> toSubscribe = new LinkedHashSet<>();
+    private final Set<String> toUnsubscribe = new LinkedHashSet<>();
+    private final Map<Long, Request> inFlight = new ConcurrentHashMap<>();
+    private volatile boolean closing;
+    private int attempts;
+    private boolean flushScheduled;
+    private long nextSendNs;
+    private long nextRequestId;
+
+    public BinanceConnection(URI uri, int index, String feed, TickIngest.Lane lane, FrameCapture capture,
+                             Settings settings, MeterRegistry meterRegistry) {
+        super(uri);
+        this.index = index;
+        this.feed = feed;
+        this.lane = lane;
+        this.capture = capture;
+        this.settings = settings;
+        Tags tags = Tags.of("connection", Integer.toString(index), "feed", feed);
+        this.errors = meterRegistry.counter("binance.errors", tags);
+        this.reconnects = meterRegistry.counter("binance.reconnects", tags);
+        this.confirmed = meterRegistry.counter("binance.control.confirmed", tags);
+        this.rejected = meterRegistry.counter("binance.control.rejected", tags);
+        this.timeouts = meterRegistry.counter("binance.control.timeouts", tags);
+        meterRegistry.gaugeMapSize("binance.control.in-flight", tags, inFlight);
+    }
+
+    public int index() {
+        return index;
+    }
+
+    /**
+     * @return {@code primary} or {@code standby}
+     */
+    public String feed() {
+        return feed;
+    }
+
+    /**
+     * @return the number of pairs, and so streams, this connection carries once pending requests are sent
+     */
+    public synchronized int streams() {
+        return pairs.size();
+    }
+
+    /**
+     * Add pairs, subscribed to from the control thread right away if the connection is open, otherwise once it
+     * opens. A pair whose unsubscribe is still pending just keeps its subscription.
+     *
+     * @param added the lower case trading pairs, e.g. {@code btcusdt}
+     */
+    public synchronized void addPairs(Collection<String> added) {
+        for (String pair : added) {
+            if (pairs.add(pair) && !toUnsubscribe.remove(pair)) {
+                toSubscribe.add(pair);
+            }
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * Remove pairs, unsubscribed from on the control thread. A pair whose subscribe is still pending is just
+     * dropped.
+     *
+     * @param removed the lower case trading pairs
+     */
+    public synchronized void removePairs(Collection<String> removed) {
+        for (String pair : removed) {
+            if (pairs.remove(pair) && !toSubscribe.remove(pair)) {
+                toUnsubscribe.add(pair);
+            }
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * Close for good, without reconnecting.
+     */
+    public void shutdown() {
+        closing = true;
+        close();
+    }
+
+    @Override
+    public void onOpen(ServerHandshake handshakedata) {
+        log.info("Connection {} ({}) to Binance WebSocket open", index, feed);
+        synchronized (this) {
+            attempts = 0;
+            // A new connection starts without streams and answers nothing sent over the old one
+            inFlight.clear();
+            toUnsubscribe.clear();
+            toSubscribe.addAll(pairs);
+            scheduleFlush();
+        }
+    }
+
+    @Override
+    public void onMessage(String message) {
+        capture.onFrame(message);
+        if (isResponse(message)) {
+            settings.scheduler().execute(() -> onResponse(message));
+            return;
+        }
+        lane.onMessage(message);
+    }
+
+    @Override
+    public void onClose(int code, String reason, boolean remote) {
+        log.info("Connection {} ({}) closed: {} - {}", index, feed, code, reason);
+        if (!closing) {
+            scheduleReconnect();
+        }
+    }
+
+    @Override
+    public void onError(Exception ex) {
+        errors.increment();
+        log.error("Connection {} ({}) error", index, feed, ex);
+    }
+
+    /**
+     * Reconnect off the websocket thread, which cannot restart itself, and off the control thread, since
+     * {@link #reconnect()} blocks until the old connection is closed.
+     */
+    private synchronized void scheduleReconnect() {
+        long backoffMs = Math.min(settings.maxBackoffMs(), settings.initialBackoffMs() << Math.min(attempts, 20));
+        long delayMs = ThreadLocalRandom.current().nextLong(backoffMs + 1);
+        attempts++;
+        log.info("Reconnecting connection {} ({}) in {} ms, attempt {}", index, feed, delayMs, attempts);
+        settings.reconnectScheduler().schedule(() -> {
+            if (!closing) {
+                reconnects.increment();
+                reconnect();
+            }
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedule sending the pending changes on the control thread, unless already scheduled or not connected.
+     */
+    private synchronized void scheduleFlush() {
+        if (flushScheduled || !isOpen() || (toSubscribe.isEmpty() && toUnsubscribe.isEmpty())) {
+            return;
+        }
+        flushScheduled = true;
+        long delayNs = Math.max(0, nextSendNs - System.nanoTime());
+        settings.scheduler().schedule(this::flush, delayNs, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Send one request of pending changes, unsubscribes first, and schedule the next one if more are pending. Runs on
+     * the control thread.
+     */
+    private synchronized void flush() {
+        flushScheduled = false;
+        if (!isOpen()) {
+            return;
+        }
+        boolean unsubscribe = !toUnsubscribe.isEmpty();
+        List<String> batch = take(unsubscribe ? toUnsubscribe : toSubscribe, settings.batchSize());
+        if (batch.isEmpty()) {
+            return;
+        }
+        Request request = new Request(unsubscribe ? "UNSUBSCRIBE" : "SUBSCRIBE", batch, System.nanoTime());
+        long id = ++nextRequestId;
+        try {
+            Map<String, Object> message = Map.of(
+                    "method", request.method(),
+                    "params", batch.stream()
+                            .map(pair -> pair + "@bookTicker")
+                            .toList(),
+                    "id", id
+            );
+            inFlight.put(id, request);
+            send(objectMapper.writeValueAsString(message));
+            settings.scheduler().schedule(() -> expire(id), settings.timeoutMs(), TimeUnit.MILLISECONDS);
+            log.info("Connection {} ({}) sent {} {} for {} pairs", index, feed, request.method(), id, batch.size());
+        } catch (Exception e) {
+            inFlight.remove(id);
+            errors.increment();
+            log.error("Connection {} ({}) failed to send {} for pairs: {}", index, feed, request.method(), batch, e);
+        }
+        nextSendNs = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SEND_INTERVAL_MS);
+        scheduleFlush();
+    }
+
+    private static List<String> take(Set<String> pending, int max) {
+        List<String> batch = new ArrayList<>(Math.min(pending.size(), max));
+        Iterator<String> iterator = pending.iterator();
+        while (iterator.hasNext() && batch.size() < max) {
+            batch.add(iterator.next());
+            iterator.remove();
+        }
+        return batch;
+    }
+
+    /**
+     * Match a response to its request. Runs on the control thread.
+     */
+    private void onResponse(String message) {
+        try {
+            JsonNode response = objectMapper.readTree(message);
+            long id = response.path("id").asLong();
+            Request request = inFlight.remove(id);
+            if (request == null) {
+                log.debug("Connection {} ({}) ignoring response to unknown request: {}", index, feed, message);
+                return;
+            }
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - request.sentAtNs());
+            if (response.has("error")) {
+                rejected.increment();
+                log.warn("Connection {} ({}) {} {} for pairs {} rejected after {} ms: {}", index, feed,
+                        request.method(), id, request.pairs(), elapsedMs, response.get("error"));
+            } else {
+                confirmed.increment();
+                log.info("Connection {} ({}) {} {} confirmed after {} ms", index, feed, request.method(), id,
+                        elapsedMs);
+            }
+        } catch (Exception e) {
+            errors.increment();
+            log.error("Connection {} ({}) failed to read response: {}", index, feed, message, e);
+        }
+    }
+
+    private void expire(long id) {
+        Request request = inFlight.remove(id);
+        if (request != null) {
+            timeouts.increment();
+            log.warn("Connection {} ({}) {} {} for pairs {} not answered within {} ms", index, feed,
+                    request.method(), id, request.pairs(), settings.timeoutMs());
+        }
+    }
+
+    /**
+     * Whether a frame answers a request, {@code {"result":null,"id":1}} or {@code {"error":{..},"id":1}}, rather
+     * than carrying market data. Cheap enough for the reader thread.
+     */
+    static boolean isResponse(String message) {
+        return message.startsWith("{\"result\"") || message.startsWith("{\"id\"")
+                || message.startsWith("{\"error\"");
+    }
+
+    /**
+     * Settings shared by all connections of a manager.
+     *
+     * @param scheduler          the control thread, sends requests and handles responses
+     * @param reconnectScheduler the threads reconnecting closed connections
+     * @param initialBackoffMs   the reconnect backoff after the first failure
+     * @param maxBackoffMs       the upper bound of the reconnect backoff
+     * @param batchSize          the most streams per request
+     * @param timeoutMs          the time to wait for a response before counting a timeout
+     */
+    public record Settings(ScheduledExecutorService scheduler, ScheduledExecutorService reconnectScheduler,
+                           long initialBackoffMs, long maxBackoffMs, int batchSize, long timeoutMs) {
+    }
+
+    private record Request(String method, List<String> pairs, long sentAtNs) {
+    }
+}
@@ -0,0 +1,315 @@
+package eu.stefanangelov.jprime2025.core.ingest;
+
+import eu.stefanangelov.jprime2025.core.replay.FrameCapture;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * The live frame source: spreads the book ticker streams of {@code binance.pairs} over {@code binance.connections}
+ * combined-stream connections to {@code binance.stream-url}, at most {@code binance.streams-per-connection} each.
+ * Only connects when {@code binance.source} is {@code live}.
+ * <p>
+ * Every {@link BinanceConnection} reads and parses on its own thread, so one busy connection does not hold up the
+ * frames of the others, and they all feed the same {@link TickIngest}. A pair goes to the connection with the fewest
+ * streams, also when added later under {@code /pairs}. Pairs are added and removed in bulk: the changes are recorded
+ * right away and sent by the {@code binance-control} thread, batched into as few requests per connection as the
+ * batch size allows.
+ * <p>
+ * With {@code binance.standby} every connection has a hot standby subscribed to the same pairs. Both deliver every
+ * tick and {@link TickIngest} publishes whichever arrives first, {@code binance.ticks.first} counts the wins of each.
+ * A connection that drops reconnects with backoff on a {@code binance-reconnect} thread while its partner carries on.
+ */
+@Slf4j
+public class BinanceConnectionManager {
+
+    private final BinanceConnection[] connections;
+    private final BinanceConnection[] standbys;
+    private final ScheduledExecutorService controlScheduler;
+    private final ScheduledExecutorService reconnectScheduler;
+    private final int streamsPerConnection;
+    private final boolean live;
+    private final Map<String, Integer> connectionsByPair = new TreeMap<>();
+
+    public BinanceConnectionManager(TickIngest ingest, FrameCapture capture, MeterRegistry meterRegistry,
+                                    @Value("${binance.source:live}") String source,
+                                    @Value("${binance.stream-url:wss://stream.binance.com:9443/stream}") String url,
+                                    @Value("${binance.connections:1}") int connectionCount,
+                                    @Value("${binance.streams-per-connection:1024}") int streamsPerConnection,
+                                    @Value("${binance.pairs:btcusdt}") String pairs,
+                                    @Value("${binance.standby:false}") boolean standby,
+                                    @Value("${binance.reconnect.initial-backoff-ms:500}") long initialBackoffMs,
+                                    @Value("${binance.reconnect.max-backoff-ms:30000}") long maxBackoffMs,
+                                    @Value("${binance.control.batch-size:200}") int batchSize,
+                                    @Value("${binance.control.timeout-ms:10000}") long timeoutMs)
+            throws Exception {
+        this.streamsPerConnection = streamsPerConnection;
+        this.live = "live".equals(source);
+        this.connections = new BinanceConnection[connectionCount];
+        this.standbys = standby ? new BinanceConnection[connectionCount] : null;
+        this.controlScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "binance-control");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Reconnecting blocks until the old socket is closed. A thread per primary and standby pair keeps an outage
+        // from queueing the connections behind each other
+        AtomicInteger reconnectThreads = new AtomicInteger();
+        this.reconnectScheduler = Executors.newScheduledThreadPool(connectionCount, runnable -> {
+            Thread thread = new Thread(runnable, "binance-reconnect-" + reconnectThreads.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        BinanceConnection.Settings settings = new BinanceConnection.Settings(
+                controlScheduler, reconnectScheduler, initialBackoffMs, maxBackoffMs, batchSize, timeoutMs);
+        URI uri = new URI(url);
+        for (int index = 0; index < connectionCount; index++) {
+            connections[index] = newConnection(uri, index, "primary", ingest, capture, meterRegistry, settings,
+                    standby);
+            if (standby) {
+                standbys[index] = newConnection(uri, index, "standby", ingest, capture, meterRegistry, settings,
+                        true);
+            }
+            Gauge.builder("binance.connection.streams", connections[index], BinanceConnection::streams)
+                    .description("Book ticker streams subscribed on the connection")
+                    .tag("connection", Integer.toString(index))
+                    .register(meterRegistry);
+        }
+        meterRegistry.gauge("binance.connections.open", this, BinanceConnectionManager::openConnections);
+        addPairs(Arrays.asList(pairs.split(",")));
+    }
+
+    private BinanceConnection newConnection(URI uri, int index, String feed, TickIngest ingest, FrameCapture capture,
+                                            MeterRegistry meterRegistry, BinanceConnection.Settings settings,
+                                            boolean arbitrated) {
+        TickIngest.Lane lane = arbitrated
+                ? ingest.newLane(meterRegistry.counter("binance.ticks.first",
+                        "connection", Integer.toString(index), "feed", feed))
+                : ingest.newLane();
+        return new BinanceConnection(uri, index, feed, lane, capture, settings, meterRegistry);
+    }
+
+    @PostConstruct
+    public void connect() {
+        if (live) {
+            log.info("Connecting {} connections for {} pairs{}", connections.length, connectionsByPair.size(),
+                    standbys != null ? ", each with a standby" : "");
+            for (int index = 0; index < connections.length; index++) {
+                connections[index].connect();
+                if (standbys != null) {
+                    standbys[index].connect();
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        controlScheduler.shutdownNow();
+        reconnectScheduler.shutdownNow();
+        for (int index = 0; index < connections.length; index++) {
+            shutdown(connections[index]);
+            if (standbys != null) {
+                shutdown(standbys[index]);
+            }
+        }
+    }
+
+    private void shutdown(BinanceConnection connection) {
+        try {
+            connection.shutdown();
+        } catch (Exception e) {
+            log.error("Error closing connection {} ({})", connection.index(), connection.feed(), e);
+        }
+    }
+
+    /**
+     * Subscribe to pairs, each on the connection with the fewest streams at the time. Does not wait for Binance.
+     *
+     * @param pairs the trading pairs, e.g. {@code ethusdt}, in any case
+     * @return the pairs added, without the ones already subscribed
+     * @throws IllegalStateException if the connections have too few free streams left for all new pairs, none are
+     *                               added then
+     */
+    public synchronized PairChange addPairs(Collection<String> pairs) {
+        List<String> added = new ArrayList<>();
+        List<String> unchanged = new ArrayList<>();
+        for (String pair : normalize(pairs)) {
+            (connectionsByPair.containsKey(pair) ? unchanged : added).add(pair);
+        }
+        int free = 0;
+        for (BinanceConnection connection : connections) {
+            free += streamsPerConnection - connection.streams();
+        }
+        if (added.size() > free) {
+            throw new IllegalStateException("Only " + free + " of " + connections.length + " x "
+                    + streamsPerConnection + " streams free for " + added.size() + " pairs, raise binance.connections");
+        }
+        List<List<String>> batches = batches();
+        int[] streams = new int[connections.length];
+        for (int index = 0; index < connections.length; index++) {
+            streams[index] = connections[index].streams();
+        }
+        for (String pair : added) {
+            int target = -1;
+            for (int index = 0; index < connections.length; index++) {
+                if (streams[index] < streamsPerConnection && (target < 0 || streams[index] < streams[target])) {
+                    target = index;
+                }
+            }
+            streams[target]++;
+            batches.get(target).add(pair);
+            connectionsByPair.put(pair, target);
+        }
+        forEachConnection(batches, BinanceConnection::addPairs);
+        return new PairChange(added, unchanged);
+    }
+
+    /**
+     * Unsubscribe from pairs. Does not wait for Binance.
+     *
+     * @param pairs the trading pairs, in any case
+     * @return the pairs removed, without the ones not subscribed
+     */
+    public synchronized PairChange removePairs(Collection<String> pairs) {
+        List<String> removed = new ArrayList<>();
+        List<String> unchanged = new ArrayList<>();
+        List<List<String>> batches = batches();
+        for (String pair : normalize(pairs)) {
+            Integer index = connectionsByPair.remove(pair);
+            if (index == null) {
+                unchanged.add(pair);
+            } else {
+                removed.add(pair);
+                batches.get(index).add(pair);
+            }
+        }
+        forEachConnection(batches, BinanceConnection::removePairs);
+        return new PairChange(removed, unchanged);
+    }
+
+    private static Set<String> normalize(Collection<String> pairs) {
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String pair : pairs) {
+            String trimmed = pair.trim().toLowerCase(Locale.ROOT);
+            if (!trimmed.isEmpty()) {
+                normalized.add(trimmed);
+            }
+        }
+        return normalized;
+    }
+
+    private List<List<String>> batches() {
+        List<List<String>> batches = new ArrayList<>(connections.length);
+        for (int index = 0; index < connections.length; index++) {
+            batches.add(new ArrayList<>());
+        }
+        return batches;
+    }
+
+    /**
+     * Hand every connection, and its standby, its batch in one call.
+     */
+    private void forEachConnection(List<List<String>> batches,
+                                   BiConsumer<BinanceConnection, List<String>> change) {
+        for (int index = 0; index < connections.length; index++) {
+            List<String> batch = batches.get(index);
+            if (!batch.isEmpty()) {
+                change.accept(connections[index], batch);
+                if (standbys != null) {
+                    change.accept(standbys[index], batch);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the connection index of every subscribed pair
+     */
+    public synchronized Map<String, Integer> pairs() {
+        return new TreeMap<>(connectionsByPair);
+    }
+
+    private int openConnections() {
+        return open(connections) + (standbys != null ? open(standbys) : 0);
+    }
+
+    private static int open(BinanceConnection[] connections) {
+        int open = 0;
+        for (BinanceConnection connection : connections) {
+            if (connection.isOpen()) {
+                open++;
+            }
+        }
+        return open;
+    }
+
+    /**
+     * Add and remove pairs in bulk via REST request and list the pairs per connection.
+     */
+    @RestController
+    @RequestMapping("/pairs")
+    public static class PairController {
+        private final BinanceConnectionManager connectionManager;
+
+        public PairController(BinanceConnectionManager connectionManager) {
+            this.connectionManager = connectionManager;
+        }
+
+        @GetMapping
+        public Map<String, Integer> pairs() {
+            return connectionManager.pairs();
+        }
+
+        /**
+         * @param pair one or more pairs, repeated or comma separated
+         */
+        @PostMapping("/add")
+        public ResponseEntity<?> addPairs(@RequestParam List<String> pair) {
+            try {
+                return ResponseEntity.ok(connectionManager.addPairs(pair));
+            } catch (IllegalStateException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
+
+        /**
+         * @param pair one or more pairs, repeated or comma separated
+         */
+        @PostMapping("/remove")
+        public PairChange removePairs(@RequestParam List<String> pair) {
+            return connectionManager.removePairs(pair);
+        }
+    }
+
+    /**
+     * @param changed   the pairs added or removed
+     * @param unchanged the pairs already subscribed, or not subscribed, and left as they were
+     */
+    public record PairChange(List<String> changed, List<String> unchanged) {
+    }
+}
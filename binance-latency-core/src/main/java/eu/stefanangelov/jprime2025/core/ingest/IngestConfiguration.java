@@ -0,0 +1,23 @@
+package eu.stefanangelov.jprime2025.core.ingest;
+
+import eu.stefanangelov.jprime2025.core.book.TopOfBook;
+import eu.stefanangelov.jprime2025.core.config.ClockConfig;
+import eu.stefanangelov.jprime2025.core.logging.TickLogger;
+import eu.stefanangelov.jprime2025.core.replay.FrameCapture;
+import eu.stefanangelov.jprime2025.core.replay.ReplaySource;
+import eu.stefanangelov.jprime2025.core.synthetic.SyntheticTickSource;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Imported by the websocket services to run the shared ingest pipeline, fed by the live websocket, a capture file or
+ * the synthetic load generator depending on {@code binance.source}. The service itself only contributes a
+ * {@link eu.stefanangelov.jprime2025.core.spi.TickPublisher}. The settings and their defaults are listed in the core
+ * module's {@code ingest-example.yml}.
+ */
+@Configuration
+@Import({ClockConfig.class, TickLogger.class, TopOfBook.class, TopOfBook.BookController.class, TickIngest.class,
+        FrameCapture.class, BinanceConnectionManager.class, BinanceConnectionManager.PairController.class,
+        ReplaySource.class, SyntheticTickSource.class})
+public class IngestConfiguration {
+}
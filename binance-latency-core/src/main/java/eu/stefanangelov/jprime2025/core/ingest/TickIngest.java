@@ -0,0 +1,239 @@
+package eu.stefanangelov.jprime2025.core.ingest;
+
+import eu.stefanangelov.jprime2025.core.book.TickConflator;
+import eu.stefanangelov.jprime2025.core.book.TopOfBook;
+import eu.stefanangelov.jprime2025.core.clock.LatencyClock;
+import eu.stefanangelov.jprime2025.core.codec.SymbolTable;
+import eu.stefanangelov.jprime2025.core.logging.TickLogger;
+import eu.stefanangelov.jprime2025.core.model.MutableBookTicker;
+import eu.stefanangelov.jprime2025.core.parser.BookTickerParser;
+import eu.stefanangelov.jprime2025.core.spi.TickPublisher;
+import eu.stefanangelov.jprime2025.core.spi.Transports;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The ingest entry point shared by all frame sources: parses a Binance book ticker frame into a reused
+ * {@link MutableBookTicker}, stamps it with the {@link LatencyClock} and hands it to the {@link TickPublisher}
+ * selected with {@code tick.transport}.
+ * <p>
+ * Frames come from exactly one source, picked with {@code binance.source}: the live
+ * {@link BinanceConnectionManager}, a {@link eu.stefanangelov.jprime2025.core.replay.ReplaySource} or a
+ * {@link eu.stefanangelov.jprime2025.core.synthetic.SyntheticTickSource}. A source with a single thread calls
+ * {@code onMessage}; a source with several, such as one thread per websocket connection, gives each thread its own
+ * {@link Lane}. Lanes parse in parallel and only take a lock to publish, since the symbol ids, the book and the
+ * publisher each have a single writer.
+ * <p>
+ * With {@code binance.standby} the same ticks arrive twice, over a primary and a standby connection. The first
+ * arrival of an update id is published and any ticker of the symbol with the same or a lower update id is dropped,
+ * counted in {@code binance.ticks.duplicate}, so every tick goes out at the latency of the faster connection.
+ * <p>
+ * Every ticker is also stored in the {@link TopOfBook}. With {@code book.conflation} it is not published here but
+ * left to the {@link TickConflator}, which publishes only the latest ticker per symbol when the transport falls
+ * behind.
+ */
+@Slf4j
+public class TickIngest {
+
+    private final TickPublisher publisher;
+    private final TopOfBook book;
+    private final TickConflator conflator;
+    private final LatencyClock clock;
+    private final TickLogger tickLogger;
+    private final Counter messagesReceived;
+    private final Counter messagesPublished;
+    private final Counter errors;
+    private final Counter duplicates;
+    private final boolean dedup;
+    private final Object publishLock = new Object();
+    private final Lane lane = new Lane(null);
+    private final SymbolTable symbolTable = new SymbolTable(64);
+    private long[] sequences = new long[64];
+    private long[] updateIds = new long[64];
+
+    public TickIngest(List<TickPublisher> publishers, MeterRegistry meterRegistry, LatencyClock clock,
+                      TickLogger tickLogger, TopOfBook book,
+                      @Value("${tick.transport:}") String transport,
+                      @Value("${book.conflation:false}") boolean conflation,
+                      @Value("${binance.standby:false}") boolean dedup) {
+        this.publisher = Transports.select(publishers, transport, TickPublisher::transport);
+        this.book = book;
+        this.clock = clock;
+        this.tickLogger = tickLogger;
+        this.messagesReceived = meterRegistry.counter("binance.messages.received");
+        this.messagesPublished = meterRegistry.counter(publisher.transport() + ".messages.published");
+        this.errors = meterRegistry.counter("binance.messages.errors");
+        this.duplicates = meterRegistry.counter("binance.ticks.duplicate");
+        this.dedup = dedup;
+        this.conflator = conflation
+                ? new TickConflator(book, publisher, publishLock, meterRegistry, messagesPublished, errors)
+                : null;
+        log.info("Publishing book tickers via {}", publisher.transport());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (conflator != null) {
+            conflator.start();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (conflator != null) {
+            conflator.close();
+        }
+    }
+
+    /**
+     * Parse and publish one frame, timestamped once it is parsed. Frames other than book tickers, such as
+     * subscription responses, are ignored. Only for sources with a single thread, see {@link #newLane()}.
+     *
+     * @param message the raw websocket frame
+     */
+    public void onMessage(CharSequence message) {
+        lane.onMessage(message);
+    }
+
+    /**
+     * Parse and publish one frame with a timestamp taken by the caller, e.g. the time a synthetic tick was scheduled
+     * for, so time spent waiting before the call counts towards latency.
+     *
+     * @param message  the raw websocket frame
+     * @param sentAtNs the send timestamp from the {@link LatencyClock}
+     */
+    public void onMessage(CharSequence message, long sentAtNs) {
+        lane.onMessage(message, sentAtNs);
+    }
+
+    /**
+     * @return a lane for one more source thread
+     */
+    public Lane newLane() {
+        return new Lane(null);
+    }
+
+    /**
+     * @param firstArrivals counts the tickers of this lane that arrived before their duplicate on another lane
+     * @return a lane for one more source thread
+     */
+    public Lane newLane(Counter firstArrivals) {
+        return new Lane(firstArrivals);
+    }
+
+    /**
+     * Publish a parsed ticker. Waiting for the lock counts towards latency, the timestamp is already taken.
+     *
+     * @return false if the ticker was dropped as a duplicate
+     */
+    private boolean publish(MutableBookTicker bookTicker, long timestampNs) throws Exception {
+        synchronized (publishLock) {
+            return publishLocked(bookTicker, timestampNs);
+        }
+    }
+
+    /**
+     * With conflation, symbols beyond the book's capacity are still published here, so the {@link TickConflator}
+     * takes the same lock to keep the publisher single threaded.
+     */
+    private boolean publishLocked(MutableBookTicker bookTicker, long timestampNs) throws Exception {
+        int symbolId = symbolTable.idOf(bookTicker.getSymbol());
+        if (dedup && isDuplicate(symbolId, bookTicker.getUpdateId())) {
+            duplicates.increment();
+            return false;
+        }
+        String symbol = symbolTable.nameOf(symbolId);
+        if (book.update(symbolId, symbol, bookTicker, timestampNs) && conflator != null) {
+            conflator.onUpdate(symbolId);
+        } else {
+            bookTicker.setSequence(nextSequence(symbolId));
+            publisher.publish(bookTicker, symbolId, symbol, timestampNs);
+            messagesPublished.increment();
+        }
+        if (tickLogger.onTick()) {
+            log.info("Published book ticker: {}", symbol);
+        }
+        return true;
+    }
+
+    /**
+     * Whether another lane already delivered this or a later update of the symbol. Tickers without an update id are
+     * never duplicates.
+     */
+    private boolean isDuplicate(int symbolId, long updateId) {
+        if (updateId == 0) {
+            return false;
+        }
+        if (symbolId >= updateIds.length) {
+            updateIds = Arrays.copyOf(updateIds, Math.max(updateIds.length << 1, symbolId + 1));
+        }
+        if (updateId <= updateIds[symbolId]) {
+            return true;
+        }
+        updateIds[symbolId] = updateId;
+        return false;
+    }
+
+    /**
+     * Number the tickers published here per symbol. With conflation the {@link TickConflator} numbers the ones it
+     * publishes, symbol ids beyond the book's capacity are the only ones still published here.
+     */
+    private long nextSequence(int symbolId) {
+        if (symbolId >= sequences.length) {
+            sequences = Arrays.copyOf(sequences, Math.max(sequences.length << 1, symbolId + 1));
+        }
+        return ++sequences[symbolId];
+    }
+
+    /**
+     * The parsing half of the pipeline for one source thread, with its own parser and reused ticker.
+     */
+    public final class Lane {
+
+        private final BookTickerParser parser = new BookTickerParser();
+        private final MutableBookTicker bookTicker = new MutableBookTicker();
+        private final Counter firstArrivals;
+
+        private Lane(Counter firstArrivals) {
+            this.firstArrivals = firstArrivals;
+        }
+
+        /**
+         * @see TickIngest#onMessage(CharSequence)
+         */
+        public void onMessage(CharSequence message) {
+            ingest(message, false, 0);
+        }
+
+        /**
+         * @see TickIngest#onMessage(CharSequence, long)
+         */
+        public void onMessage(CharSequence message, long sentAtNs) {
+            ingest(message, true, sentAtNs);
+        }
+
+        private void ingest(CharSequence message, boolean stamped, long sentAtNs) {
+            messagesReceived.increment();
+            try {
+                if (!parser.parse(message, bookTicker)) {
+                    log.debug("Ignoring non book ticker message: {}", message);
+                    return;
+                }
+                if (publish(bookTicker, stamped ? sentAtNs : clock.nanos()) // Attach timestamp
+                        && firstArrivals != null) {
+                    firstArrivals.increment();
+                }
+            } catch (Exception e) {
+                errors.increment();
+                log.error("Error processing message: {}", message, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package eu.stefanangelov.jprime2025.core.logging;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replaces per-tick logging on the hot path.
+ * <p>
+ * The hot path calls {@link #onTick()}, which only bumps a counter, and logs the tick itself only when it returns
+ * true. Depending on {@code tick-log.mode} that is never ({@code off}, {@code summary}) or every
+ * {@code tick-log.sample-every}-th tick ({@code sample}). In {@code summary} mode a background thread logs the tick
+ * count every {@code tick-log.interval-ms} instead.
+ */
+@Slf4j
+@Component
+public class TickLogger {
+
+    public enum Mode {
+        OFF, SAMPLE, SUMMARY
+    }
+
+    private final Mode mode;
+    private final long sampleEvery;
+    private final long intervalMs;
+    private final AtomicLong ticks = new AtomicLong();
+    private final ScheduledExecutorService scheduler;
+    private long lastTicks;
+
+    public TickLogger(@Value("${tick-log.mode:summary}") String mode,
+                      @Value("${tick-log.sample-every:1000}") long sampleEvery,
+                      @Value("${tick-log.interval-ms:1000}") long intervalMs) {
+        this.mode = Mode.valueOf(mode.toUpperCase(Locale.ROOT));
+        this.sampleEvery = Math.max(sampleEvery, 1);
+        this.intervalMs = intervalMs;
+        if (this.mode == Mode.SUMMARY) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "tick-logger");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleAtFixedRate(this::logSummary, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Count a tick.
+     *
+     * @return true if the caller should log this tick
+     */
+    public boolean onTick() {
+        long tick = ticks.getAndIncrement();
+        return mode == Mode.SAMPLE && tick % sampleEvery == 0;
+    }
+
+    private void logSummary() {
+        long total = ticks.get();
+        log.info("{} ticks in the last {} ms, {} in total", total - lastTicks, intervalMs, total);
+        lastTicks = total;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+}
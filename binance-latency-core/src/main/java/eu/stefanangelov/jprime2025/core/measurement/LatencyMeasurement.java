@@ -0,0 +1,77 @@
+package eu.stefanangelov.jprime2025.core.measurement;
+
+import eu.stefanangelov.jprime2025.core.clock.LatencyClock;
+import eu.stefanangelov.jprime2025.core.logging.TickLogger;
+import eu.stefanangelov.jprime2025.core.metrics.LatencyRecorder;
+import eu.stefanangelov.jprime2025.core.spi.TickHandler;
+import eu.stefanangelov.jprime2025.core.spi.TickSubscriber;
+import eu.stefanangelov.jprime2025.core.spi.Transports;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The measurement engine shared by all transports. Starts the {@link TickSubscriber} selected with
+ * {@code tick.transport} and measures every tick it delivers against the {@link LatencyClock}, into the
+ * {@link LatencyRecorder} and the {@code tick.latency} timer tagged with the transport. Transports add their own
+ * metrics, e.g. per shard or per consumer mode, from the returned latency.
+ * <p>
+ * Every tick is also checked by the {@link SequenceTracker}, whose loss and reorder counts qualify the latency: a
+ * transport that drops ticks under load is not measured on the same ticks as one that does not.
+ */
+@Slf4j
+public class LatencyMeasurement implements TickHandler {
+
+    private final TickSubscriber subscriber;
+    private final LatencyRecorder latencyRecorder;
+    private final LatencyClock clock;
+    private final TickLogger tickLogger;
+    private final Timer latencyTimer;
+    private final SequenceTracker sequenceTracker;
+
+    public LatencyMeasurement(List<TickSubscriber> subscribers, LatencyRecorder latencyRecorder, LatencyClock clock,
+                              TickLogger tickLogger, MeterRegistry meterRegistry,
+                              @Value("${tick.transport:}") String transport,
+                              @Value("${latency.sequence.max-symbols:4096}") int maxSymbols,
+                              @Value("${latency.stale-after-ms:5000}") long staleAfterMs) {
+        this.subscriber = Transports.select(subscribers, transport, TickSubscriber::transport);
+        this.latencyRecorder = latencyRecorder;
+        this.clock = clock;
+        this.tickLogger = tickLogger;
+        this.latencyTimer = Timer.builder("tick.latency")
+                .description("Latency of book tickers measured by the shared measurement engine")
+                .tag("transport", subscriber.transport())
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.sequenceTracker = new SequenceTracker(meterRegistry, clock, subscriber.transport(), maxSymbols,
+                staleAfterMs);
+    }
+
+    @PostConstruct
+    public void start() throws Exception {
+        log.info("Measuring book tickers received via {}", subscriber.transport());
+        subscriber.start(this);
+    }
+
+    public SequenceTracker sequenceTracker() {
+        return sequenceTracker;
+    }
+
+    @Override
+    public long onTick(String symbol, long updateId, long sequence, long sentAtNs) {
+        long receivedAtNs = clock.nanos();
+        long latencyNs = receivedAtNs - sentAtNs;
+        latencyTimer.record(latencyNs, TimeUnit.NANOSECONDS);
+        latencyRecorder.record(latencyNs);
+        sequenceTracker.onTick(symbol, updateId, sequence, receivedAtNs);
+        if (tickLogger.onTick()) {
+            log.info("Received book ticker: {}, Latency: {} ms", symbol, latencyNs / 1_000_000.0);
+        }
+        return latencyNs;
+    }
+}
@@ -0,0 +1,17 @@
+package eu.stefanangelov.jprime2025.core.measurement;
+
+import eu.stefanangelov.jprime2025.core.config.ClockConfig;
+import eu.stefanangelov.jprime2025.core.logging.TickLogger;
+import eu.stefanangelov.jprime2025.core.metrics.LatencyRecorder;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Imported by the latency measurement services to run the shared measurement engine. The service itself only
+ * contributes a {@link eu.stefanangelov.jprime2025.core.spi.TickSubscriber}.
+ */
+@Configuration
+@Import({ClockConfig.class, TickLogger.class, LatencyRecorder.class, LatencyRecorder.LatencyController.class,
+        LatencyMeasurement.class})
+public class MeasurementConfiguration {
+}
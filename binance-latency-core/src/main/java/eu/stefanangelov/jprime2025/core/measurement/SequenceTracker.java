@@ -0,0 +1,195 @@
+package eu.stefanangelov.jprime2025.core.measurement;
+
+import eu.stefanangelov.jprime2025.core.clock.LatencyClock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Checks the per-symbol publish sequence and the Binance update id of every received tick, so a transport that loses
+ * or reorders ticks shows it next to its latency.
+ * <p>
+ * Against the last sequence seen for the symbol, a tick is in order (last + 1), a gap (further ahead, the skipped
+ * ticks are added to {@code tick.sequence.missing}), a duplicate (equal), a publisher restart (1 again) or reordered
+ * (behind). A reordered tick arriving late was already counted as missing when it was skipped. The first tick of a
+ * symbol is taken as is, a consumer joining a running stream has not missed anything. Independently, an update id
+ * lower than the last one is a {@code tick.update-id.regressions}; conflated or filtered ticks skip update ids, so
+ * only regressions are counted. {@code tick.staleness} is the time since the symbol's last tick and
+ * {@code tick.symbols.stale} the number of symbols silent for longer than {@code latency.stale-after-ms}.
+ * <p>
+ * State lives in primitive arrays indexed by a dense id assigned on the first tick of a symbol, up to
+ * {@code latency.sequence.max-symbols}. A symbol is delivered by one receiving thread at a time (an Aeron shard, a
+ * Kafka partition, a NATS dispatcher), which owns its slots; the counters are atomic only because the meters read
+ * them from the scrape thread.
+ */
+@Slf4j
+public class SequenceTracker {
+
+    private final MeterRegistry meterRegistry;
+    private final LatencyClock clock;
+    private final String transport;
+    private final int capacity;
+    private final long staleAfterNs;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Counter overflow;
+    private final long[] lastSequence;
+    private final long[] lastUpdateId;
+    private final AtomicLongArray lastReceivedNs;
+    private final AtomicLongArray gaps;
+    private final AtomicLongArray missing;
+    private final AtomicLongArray duplicates;
+    private final AtomicLongArray reorders;
+    private final AtomicLongArray restarts;
+    private final AtomicLongArray updateIdRegressions;
+
+    public SequenceTracker(MeterRegistry meterRegistry, LatencyClock clock, String transport, int capacity,
+                           long staleAfterMs) {
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.transport = transport;
+        this.capacity = capacity;
+        this.staleAfterNs = TimeUnit.MILLISECONDS.toNanos(staleAfterMs);
+        this.overflow = meterRegistry.counter("tick.sequence.symbols.overflow", "transport", transport);
+        this.lastSequence = new long[capacity];
+        this.lastUpdateId = new long[capacity];
+        this.lastReceivedNs = new AtomicLongArray(capacity);
+        this.gaps = new AtomicLongArray(capacity);
+        this.missing = new AtomicLongArray(capacity);
+        this.duplicates = new AtomicLongArray(capacity);
+        this.reorders = new AtomicLongArray(capacity);
+        this.restarts = new AtomicLongArray(capacity);
+        this.updateIdRegressions = new AtomicLongArray(capacity);
+        Gauge.builder("tick.symbols.stale", this, SequenceTracker::staleSymbols)
+                .description("Symbols without a tick for longer than latency.stale-after-ms")
+                .tag("transport", transport)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Check a received tick.
+     *
+     * @param symbol       the symbol
+     * @param updateId     the Binance update id, 0 if unknown
+     * @param sequence     the publisher's per-symbol sequence, 0 if unknown
+     * @param receivedAtNs the receive time from the {@link LatencyClock}
+     */
+    public void onTick(String symbol, long updateId, long sequence, long receivedAtNs) {
+        int id = idOf(symbol);
+        if (id < 0) {
+            return;
+        }
+        lastReceivedNs.lazySet(id, receivedAtNs);
+        if (sequence > 0) {
+            long last = lastSequence[id];
+            if (last == 0 || sequence == last + 1) {
+                lastSequence[id] = sequence;
+            } else if (sequence > last) {
+                gaps.incrementAndGet(id);
+                missing.addAndGet(id, sequence - last - 1);
+                lastSequence[id] = sequence;
+            } else if (sequence == last) {
+                duplicates.incrementAndGet(id);
+            } else if (sequence == 1) {
+                restarts.incrementAndGet(id);
+                lastSequence[id] = sequence;
+            } else {
+                reorders.incrementAndGet(id);
+            }
+        }
+        if (updateId > 0) {
+            if (updateId < lastUpdateId[id]) {
+                updateIdRegressions.incrementAndGet(id);
+            } else {
+                lastUpdateId[id] = updateId;
+            }
+        }
+    }
+
+    /**
+     * @return the ticks reported missing over all symbols so far
+     */
+    public long missing() {
+        return sum(missing);
+    }
+
+    /**
+     * @return the duplicated and reordered ticks over all symbols so far
+     */
+    public long outOfOrder() {
+        return sum(duplicates) + sum(reorders);
+    }
+
+    private long sum(AtomicLongArray counts) {
+        long total = 0;
+        for (int id = 0, count = Math.min(size.get(), capacity); id < count; id++) {
+            total += counts.get(id);
+        }
+        return total;
+    }
+
+    private int idOf(String symbol) {
+        Integer id = ids.get(symbol);
+        if (id == null) {
+            id = ids.computeIfAbsent(symbol, this::register);
+        }
+        return id;
+    }
+
+    /**
+     * Assign the next id to a new symbol and register its meters. Only runs once per symbol.
+     */
+    private int register(String symbol) {
+        int id = size.getAndIncrement();
+        if (id >= capacity) {
+            overflow.increment();
+            log.warn("Not tracking sequences of {}, latency.sequence.max-symbols {} reached", symbol, capacity);
+            return -1;
+        }
+        Tags tags = Tags.of("transport", transport, "symbol", symbol);
+        counter("tick.sequence.gaps", "Times ticks were skipped", tags, gaps, id);
+        counter("tick.sequence.missing", "Ticks skipped by the sequence", tags, missing, id);
+        counter("tick.sequence.duplicates", "Ticks received twice", tags, duplicates, id);
+        counter("tick.sequence.reorders", "Ticks received after a later one", tags, reorders, id);
+        counter("tick.sequence.restarts", "Times the publisher's sequence started over", tags, restarts, id);
+        counter("tick.update-id.regressions", "Ticks with a lower Binance update id than the last", tags,
+                updateIdRegressions, id);
+        TimeGauge.builder("tick.staleness", this, TimeUnit.NANOSECONDS, tracker -> tracker.stalenessNs(id))
+                .description("Time since the last tick of the symbol")
+                .tags(tags)
+                .register(meterRegistry);
+        return id;
+    }
+
+    private void counter(String name, String description, Tags tags, AtomicLongArray counts, int id) {
+        FunctionCounter.builder(name, counts, c -> c.get(id))
+                .description(description)
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    private long stalenessNs(int id) {
+        return clock.nanos() - lastReceivedNs.get(id);
+    }
+
+    private int staleSymbols() {
+        int stale = 0;
+        for (int id = 0, count = Math.min(size.get(), capacity); id < count; id++) {
+            // A symbol whose first tick is not recorded yet still reads 0 and counts as stale for a moment
+            if (stalenessNs(id) > staleAfterNs) {
+                stale++;
+            }
+        }
+        return stale;
+    }
+}
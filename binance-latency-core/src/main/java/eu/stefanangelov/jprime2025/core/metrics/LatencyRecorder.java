@@ -0,0 +1,190 @@
+package eu.stefanangelov.jprime2025.core.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full resolution latency recorder backed by HdrHistogram.
+ * <p>
+ * Receiving threads record into a {@link Recorder}. Every snapshot interval the interval histogram is swapped out,
+ * appended to an {@code .hlog} file, added to the cumulative histogram and its percentiles are published as gauges.
+ * When an expected tick rate is configured, values are recorded with
+ * {@link Recorder#recordValueWithExpectedInterval(long, long)} to correct for coordinated omission.
+ */
+@Slf4j
+@Component
+public class LatencyRecorder {
+
+    static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9, 99.99, 99.999};
+
+    private final Recorder recorder;
+    private final Histogram cumulative;
+    private final long expectedIntervalNs;
+    private final long highestTrackableNs;
+    private final Counter negativeLatencies;
+    private final double[] intervalPercentiles = new double[PERCENTILES.length + 1];
+    private final Path hlogFile;
+    private final PrintStream hlogStream;
+    private final HistogramLogWriter hlogWriter;
+    private final ScheduledExecutorService scheduler;
+    private Histogram intervalHistogram;
+
+    public LatencyRecorder(MeterRegistry meterRegistry,
+                           @Value("${latency.metric-prefix}") String metricPrefix,
+                           @Value("${latency.expected-tick-rate:0}") long expectedTickRate,
+                           @Value("${latency.highest-trackable-ns:60000000000}") long highestTrackableNs,
+                           @Value("${latency.significant-digits:3}") int significantDigits,
+                           @Value("${latency.snapshot-interval-ms:10000}") long snapshotIntervalMs,
+                           @Value("${latency.hlog-dir:${java.io.tmpdir}}") String hlogDir) throws IOException {
+        this.recorder = new Recorder(highestTrackableNs, significantDigits);
+        this.cumulative = new Histogram(highestTrackableNs, significantDigits);
+        this.expectedIntervalNs = expectedTickRate > 0 ? TimeUnit.SECONDS.toNanos(1) / expectedTickRate : 0;
+        this.highestTrackableNs = highestTrackableNs;
+        this.negativeLatencies = meterRegistry.counter(metricPrefix + ".latency.negative");
+
+        for (int i = 0; i <= PERCENTILES.length; i++) {
+            final int index = i;
+            Gauge.builder(metricPrefix + ".latency.hdr", intervalPercentiles, values -> values[index])
+                    .description("Latency percentiles of the last HdrHistogram interval")
+                    .tag("percentile", i < PERCENTILES.length ? Double.toString(PERCENTILES[i] / 100.0) : "max")
+                    .baseUnit("nanoseconds")
+                    .register(meterRegistry);
+        }
+
+        long startTime = System.currentTimeMillis();
+        this.hlogFile = Files.createDirectories(Path.of(hlogDir)).resolve(metricPrefix + "-" + startTime + ".hlog");
+        this.hlogStream = new PrintStream(Files.newOutputStream(hlogFile), false);
+        this.hlogWriter = new HistogramLogWriter(hlogStream);
+        hlogWriter.outputLogFormatVersion();
+        hlogWriter.outputStartTime(startTime);
+        hlogWriter.setBaseTime(startTime);
+        hlogWriter.outputLegend();
+        log.info("Writing latency histograms to {}", hlogFile);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "latency-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::snapshot, snapshotIntervalMs, snapshotIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Record a latency. Safe to call from any number of receiving threads.
+     *
+     * @param latencyNs the measured latency in nanoseconds
+     */
+    public void record(long latencyNs) {
+        if (latencyNs < 0) {
+            negativeLatencies.increment();
+            return;
+        }
+        long value = Math.min(latencyNs, highestTrackableNs);
+        if (expectedIntervalNs > 0) {
+            recorder.recordValueWithExpectedInterval(value, expectedIntervalNs);
+        } else {
+            recorder.recordValue(value);
+        }
+    }
+
+    /**
+     * @return percentiles of everything recorded since startup, in nanoseconds
+     */
+    public synchronized Map<String, Long> cumulativePercentiles() {
+        Map<String, Long> percentiles = new LinkedHashMap<>();
+        percentiles.put("count", cumulative.getTotalCount());
+        percentiles.put("min", cumulative.getMinValue());
+        for (double percentile : PERCENTILES) {
+            percentiles.put(Double.toString(percentile), cumulative.getValueAtPercentile(percentile));
+        }
+        percentiles.put("max", cumulative.getMaxValue());
+        return percentiles;
+    }
+
+    /**
+     * Forget everything recorded so far, e.g. at the end of a warm-up. The {@code .hlog} file keeps its intervals.
+     */
+    public synchronized void reset() {
+        recorder.reset();
+        cumulative.reset();
+    }
+
+    public Path hlogFile() {
+        return hlogFile;
+    }
+
+    private synchronized void snapshot() {
+        try {
+            intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
+            cumulative.add(intervalHistogram);
+            hlogWriter.outputIntervalHistogram(intervalHistogram);
+            hlogStream.flush();
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                intervalPercentiles[i] = intervalHistogram.getValueAtPercentile(PERCENTILES[i]);
+            }
+            intervalPercentiles[PERCENTILES.length] = intervalHistogram.getMaxValue();
+        } catch (Exception e) {
+            log.error("Error taking latency histogram snapshot", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.shutdown();
+        snapshot();
+        hlogStream.close();
+    }
+
+    /**
+     * Expose cumulative percentiles and the raw {@code .hlog} file for offline analysis with HistogramLogAnalyzer.
+     */
+    @RestController
+    @RequestMapping("/latency")
+    public static class LatencyController {
+        private final LatencyRecorder latencyRecorder;
+
+        public LatencyController(LatencyRecorder latencyRecorder) {
+            this.latencyRecorder = latencyRecorder;
+        }
+
+        @GetMapping("/percentiles")
+        public Map<String, Long> percentiles() {
+            return latencyRecorder.cumulativePercentiles();
+        }
+
+        @GetMapping("/hlog")
+        public ResponseEntity<Resource> hlog() {
+            Path hlogFile = latencyRecorder.hlogFile();
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + hlogFile.getFileName() + "\"")
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .body(new FileSystemResource(hlogFile));
+        }
+    }
+}
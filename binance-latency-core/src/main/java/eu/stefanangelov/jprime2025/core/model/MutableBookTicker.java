@@ -0,0 +1,46 @@
+package eu.stefanangelov.jprime2025.core.model;
+
+import eu.stefanangelov.jprime2025.core.codec.FixedPoint;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Reusable book ticker filled in place by {@code BookTickerParser} for every frame.
+ * Prices and quantities are fixed-point longs scaled by {@link FixedPoint#SCALE}.
+ * <p>
+ * {@code updateId} is Binance's order book update id. {@code sequence} is not part of the frame: the ingest pipeline
+ * numbers the tickers it publishes per symbol from 1, so subscribers can detect lost, duplicated and reordered ticks.
+ */
+@Getter
+@Setter
+public class MutableBookTicker {
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final StringBuilder symbol = new StringBuilder(16);
+    private long updateId;
+    private long sequence;
+    private long bidPrice;
+    private long bidQty;
+    private long askPrice;
+    private long askQty;
+
+    public CharSequence getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(CharSequence value, int start, int end) {
+        symbol.setLength(0);
+        symbol.append(value, start, end);
+    }
+
+    public void reset() {
+        symbol.setLength(0);
+        updateId = 0;
+        sequence = 0;
+        bidPrice = 0;
+        bidQty = 0;
+        askPrice = 0;
+        askQty = 0;
+    }
+}
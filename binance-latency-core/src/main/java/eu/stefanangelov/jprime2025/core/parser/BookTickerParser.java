@@ -0,0 +1,141 @@
+package eu.stefanangelov.jprime2025.core.parser;
+
+import eu.stefanangelov.jprime2025.core.codec.FixedPoint;
+import eu.stefanangelov.jprime2025.core.model.MutableBookTicker;
+
+/**
+ * Single pass scanner for Binance bookTicker frames such as
+ * {@code {"u":400900217,"s":"BNBUSDT","b":"25.35190000","B":"31.21000000","a":"25.36520000","A":"40.66000000"}}.
+ * <p>
+ * Only the one-letter keys {@code u/s/b/B/a/A} are interpreted, everything else is skipped, which also covers the
+ * {@code {"stream":...,"data":{...}}} envelope of combined streams. The parser keeps no per-frame state and
+ * writes into a caller-owned {@link MutableBookTicker}, so parsing does not allocate.
+ */
+public final class BookTickerParser {
+
+    private static final int SYMBOL = 1;
+    private static final int BID_PRICE = 1 << 1;
+    private static final int BID_QTY = 1 << 2;
+    private static final int ASK_PRICE = 1 << 3;
+    private static final int ASK_QTY = 1 << 4;
+    private static final int COMPLETE = SYMBOL | BID_PRICE | BID_QTY | ASK_PRICE | ASK_QTY;
+
+    /**
+     * Parse a frame into the given ticker.
+     *
+     * @param frame  the websocket text frame
+     * @param ticker the record to fill, reset before parsing
+     * @return true if the frame carried a complete book ticker, false for subscription replies and other frames
+     */
+    public boolean parse(CharSequence frame, MutableBookTicker ticker) {
+        ticker.reset();
+        int fields = 0;
+        int length = frame.length();
+        int i = 0;
+        while (i < length) {
+            if (frame.charAt(i) != '"') {
+                i++;
+                continue;
+            }
+            int keyStart = i + 1;
+            int keyEnd = indexOf(frame, '"', keyStart);
+            if (keyEnd < 0) {
+                break;
+            }
+            i = skipWhitespace(frame, keyEnd + 1);
+            if (keyEnd - keyStart != 1 || i >= length || frame.charAt(i) != ':') {
+                continue;
+            }
+            i = skipWhitespace(frame, i + 1);
+            if (i >= length) {
+                break;
+            }
+            char key = frame.charAt(keyStart);
+            if (key == 'u') {
+                boolean quoted = frame.charAt(i) == '"';
+                int start = quoted ? i + 1 : i;
+                int end = numberEnd(frame, start);
+                ticker.setUpdateId(parseLong(frame, start, end));
+                if (!quoted) {
+                    i = end;
+                    continue;
+                }
+                // Skip the closing quote like a string value, so it is not taken for the start of the next key
+                int valueEnd = indexOf(frame, '"', end);
+                if (valueEnd < 0) {
+                    break;
+                }
+                i = valueEnd + 1;
+                continue;
+            }
+            if (frame.charAt(i) != '"') {
+                continue;
+            }
+            int valueStart = i + 1;
+            int valueEnd = indexOf(frame, '"', valueStart);
+            if (valueEnd < 0) {
+                break;
+            }
+            i = valueEnd + 1;
+            switch (key) {
+                case 's' -> {
+                    ticker.setSymbol(frame, valueStart, valueEnd);
+                    fields |= SYMBOL;
+                }
+                case 'b' -> {
+                    ticker.setBidPrice(FixedPoint.parse(frame, valueStart, valueEnd));
+                    fields |= BID_PRICE;
+                }
+                case 'B' -> {
+                    ticker.setBidQty(FixedPoint.parse(frame, valueStart, valueEnd));
+                    fields |= BID_QTY;
+                }
+                case 'a' -> {
+                    ticker.setAskPrice(FixedPoint.parse(frame, valueStart, valueEnd));
+                    fields |= ASK_PRICE;
+                }
+                case 'A' -> {
+                    ticker.setAskQty(FixedPoint.parse(frame, valueStart, valueEnd));
+                    fields |= ASK_QTY;
+                }
+                default -> {
+                    // not part of the book ticker
+                }
+            }
+        }
+        return fields == COMPLETE;
+    }
+
+    private static int indexOf(CharSequence frame, char c, int from) {
+        for (int i = from, length = frame.length(); i < length; i++) {
+            if (frame.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipWhitespace(CharSequence frame, int from) {
+        int i = from;
+        while (i < frame.length() && Character.isWhitespace(frame.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int numberEnd(CharSequence frame, int from) {
+        int i = from;
+        while (i < frame.length() && frame.charAt(i) >= '0' && frame.charAt(i) <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    private static long parseLong(CharSequence frame, int start, int end) {
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            result = result * 10 + (frame.charAt(i) - '0');
+        }
+        return result;
+    }
+}
@@ -0,0 +1,69 @@
+package eu.stefanangelov.jprime2025.core.replay;
+
+import eu.stefanangelov.jprime2025.core.clock.LatencyClock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Records the live Binance frames with their receive timestamps to {@code binance.capture.path}, so a run can later
+ * be repeated offline by the {@link ReplaySource}. Capture is off while the path is blank. Once the file reaches
+ * {@code binance.capture.max-bytes} further frames are counted in {@code binance.capture.dropped} and not recorded.
+ */
+@Slf4j
+public class FrameCapture {
+
+    private final FrameLogWriter writer;
+    private final LatencyClock clock;
+    private final Counter captured;
+    private final Counter dropped;
+    private boolean full;
+
+    public FrameCapture(LatencyClock clock, MeterRegistry meterRegistry,
+                        @Value("${binance.capture.path:}") String path,
+                        @Value("${binance.capture.max-bytes:1073741824}") long maxBytes) throws IOException {
+        this.clock = clock;
+        this.writer = path.isBlank() ? null : new FrameLogWriter(Path.of(path), maxBytes);
+        this.captured = meterRegistry.counter("binance.capture.frames");
+        this.dropped = meterRegistry.counter("binance.capture.dropped");
+        if (writer != null) {
+            log.info("Capturing Binance frames to {}", path);
+        }
+    }
+
+    /**
+     * Record a frame, called on a websocket reader thread before it is parsed. The connections' threads take turns.
+     */
+    public void onFrame(String frame) {
+        if (writer == null) {
+            return;
+        }
+        synchronized (writer) {
+            append(frame);
+        }
+    }
+
+    private void append(String frame) {
+        if (writer.append(clock.nanos(), frame)) {
+            captured.increment();
+            return;
+        }
+        dropped.increment();
+        if (!full) {
+            full = true;
+            log.warn("Capture file full after {} bytes, further frames are not recorded", writer.position());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+}
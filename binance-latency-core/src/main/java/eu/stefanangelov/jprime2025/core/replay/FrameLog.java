@@ -0,0 +1,21 @@
+package eu.stefanangelov.jprime2025.core.replay;
+
+/**
+ * Layout of a capture file, written by {@link FrameLogWriter} and read by {@link FrameLogReader}.
+ * <pre>
+ * file header:  int magic, int version, long capacity
+ * frame record: int length, long receive timestamp (ns), length bytes of UTF-8 frame
+ * </pre>
+ * All values are little-endian. The length of a record is written last, so a zero length marks the end of the log,
+ * also when the capturing process died mid-record.
+ */
+public final class FrameLog {
+
+    public static final int MAGIC = 0x42464C47; // "BFLG"
+    public static final int VERSION = 1;
+    public static final int HEADER_LENGTH = 16;
+    public static final int RECORD_HEADER_LENGTH = Integer.BYTES + Long.BYTES;
+
+    private FrameLog() {
+    }
+}
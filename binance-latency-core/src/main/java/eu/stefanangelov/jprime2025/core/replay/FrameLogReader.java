@@ -0,0 +1,89 @@
+package eu.stefanangelov.jprime2025.core.replay;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Iterates over the frames of a {@link FrameLog} file mapped read only. Not thread safe.
+ */
+public class FrameLogReader implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int limit;
+    private byte[] scratch = new byte[4096];
+    private int position = FrameLog.HEADER_LENGTH;
+    private long timestampNs;
+    private String frame;
+
+    public FrameLogReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, READ);
+        this.limit = (int) Math.min(channel.size(), Integer.MAX_VALUE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, limit);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (limit < FrameLog.HEADER_LENGTH || buffer.getInt(0) != FrameLog.MAGIC) {
+            channel.close();
+            throw new IOException("Not a frame log: " + path);
+        }
+        int version = buffer.getInt(Integer.BYTES);
+        if (version != FrameLog.VERSION) {
+            channel.close();
+            throw new IOException("Unsupported frame log version " + version + ": " + path);
+        }
+    }
+
+    /**
+     * Advance to the next frame.
+     *
+     * @return false at the end of the log
+     */
+    public boolean next() {
+        if (position + FrameLog.RECORD_HEADER_LENGTH > limit) {
+            return false;
+        }
+        int length = buffer.getInt(position);
+        if (length <= 0 || position + FrameLog.RECORD_HEADER_LENGTH + length > limit) {
+            return false;
+        }
+        timestampNs = buffer.getLong(position + Integer.BYTES);
+        if (scratch.length < length) {
+            scratch = new byte[Integer.highestOneBit(length) << 1];
+        }
+        buffer.get(position + FrameLog.RECORD_HEADER_LENGTH, scratch, 0, length);
+        frame = new String(scratch, 0, length, UTF_8);
+        position += FrameLog.RECORD_HEADER_LENGTH + length;
+        return true;
+    }
+
+    /**
+     * @return the receive timestamp of the current frame
+     */
+    public long timestampNs() {
+        return timestampNs;
+    }
+
+    /**
+     * @return the current frame
+     */
+    public String frame() {
+        return frame;
+    }
+
+    /**
+     * Start over from the first frame.
+     */
+    public void rewind() {
+        position = FrameLog.HEADER_LENGTH;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
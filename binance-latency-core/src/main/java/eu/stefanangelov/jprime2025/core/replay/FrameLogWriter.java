@@ -0,0 +1,91 @@
+package eu.stefanangelov.jprime2025.core.replay;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Appends frames to a {@link FrameLog} file mapped into memory up front, so an append is a copy into the page cache
+ * without a system call. The file is created sparse with the full capacity; the unused tail takes no disk space.
+ * Not thread safe, the {@link FrameCapture} serializes the websocket reader threads.
+ */
+public class FrameLogWriter implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final CharsetEncoder encoder = UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final int capacity;
+    private int position = FrameLog.HEADER_LENGTH;
+
+    /**
+     * Create or truncate a capture file.
+     *
+     * @param path     the file to write
+     * @param capacity the file size in bytes, at most {@link Integer#MAX_VALUE} as that is all a single mapping holds
+     */
+    public FrameLogWriter(Path path, long capacity) throws IOException {
+        this.capacity = (int) Math.min(capacity, Integer.MAX_VALUE);
+        this.channel = FileChannel.open(path, CREATE, READ, WRITE, TRUNCATE_EXISTING);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, this.capacity);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(0, FrameLog.MAGIC);
+        buffer.putInt(Integer.BYTES, FrameLog.VERSION);
+        buffer.putLong(2 * Integer.BYTES, this.capacity);
+    }
+
+    /**
+     * Append one frame.
+     *
+     * @param timestampNs the receive timestamp
+     * @param frame       the frame text, empty frames are skipped
+     * @return false if the file is full, in which case nothing was appended
+     */
+    public boolean append(long timestampNs, CharSequence frame) {
+        if (frame.isEmpty()) {
+            return true;
+        }
+        int payloadStart = position + FrameLog.RECORD_HEADER_LENGTH;
+        if (payloadStart >= capacity) {
+            return false;
+        }
+        buffer.limit(capacity).position(payloadStart);
+        encoder.reset();
+        CoderResult result = encoder.encode(CharBuffer.wrap(frame), buffer, true);
+        if (result.isOverflow() || encoder.flush(buffer).isOverflow()) {
+            // The partial payload stays behind a zero length, which readers take as the end of the log
+            return false;
+        }
+        int end = buffer.position();
+        buffer.putLong(position + Integer.BYTES, timestampNs);
+        buffer.putInt(position, end - payloadStart);
+        position = end;
+        return true;
+    }
+
+    /**
+     * @return the bytes written so far, file header included
+     */
+    public int position() {
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+}
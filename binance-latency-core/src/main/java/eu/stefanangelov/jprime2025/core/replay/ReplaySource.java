@@ -0,0 +1,141 @@
+package eu.stefanangelov.jprime2025.core.replay;
+
+import eu.stefanangelov.jprime2025.core.ingest.TickIngest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Feeds a capture file written by {@link FrameCapture} into {@link TickIngest} instead of the live websocket, when
+ * {@code binance.source} is {@code replay}. This makes runs repeatable and possible without internet access, so the
+ * transports can be compared on identical load.
+ * <p>
+ * {@code binance.replay.mode} sets the pace:
+ * <ul>
+ *     <li>{@code original}: the recorded inter-arrival times, divided by {@code binance.replay.speed}</li>
+ *     <li>{@code fixed}: {@code binance.replay.rate} frames per second</li>
+ *     <li>{@code max}: as fast as the ingest thread can go</li>
+ * </ul>
+ * The file is replayed {@code binance.replay.loops} times, {@code 0} loops forever. Frames are timestamped by the
+ * ingest when they are replayed, not with their recorded receive time.
+ */
+@Slf4j
+public class ReplaySource {
+
+    public enum Mode {
+        ORIGINAL, FIXED, MAX
+    }
+
+    // Waits longer than this park the thread, shorter ones spin to hit the schedule precisely
+    private static final long SPIN_THRESHOLD_NS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final TickIngest ingest;
+    private final boolean enabled;
+    private final String path;
+    private final Mode mode;
+    private final double speed;
+    private final long intervalNs;
+    private final int loops;
+    private final Counter framesReplayed;
+    private FrameLogReader reader;
+    private Thread replayThread;
+    private volatile boolean running;
+
+    public ReplaySource(TickIngest ingest, MeterRegistry meterRegistry,
+                        @Value("${binance.source:live}") String source,
+                        @Value("${binance.replay.path:}") String path,
+                        @Value("${binance.replay.mode:original}") String mode,
+                        @Value("${binance.replay.speed:1.0}") double speed,
+                        @Value("${binance.replay.rate:10000}") long rate,
+                        @Value("${binance.replay.loops:1}") int loops) {
+        this.ingest = ingest;
+        this.enabled = "replay".equals(source);
+        this.path = path;
+        this.mode = Mode.valueOf(mode.toUpperCase(Locale.ROOT));
+        this.speed = speed;
+        this.intervalNs = TimeUnit.SECONDS.toNanos(1) / Math.max(rate, 1);
+        this.loops = loops;
+        this.framesReplayed = meterRegistry.counter("binance.replay.frames");
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        if (path.isBlank()) {
+            throw new IllegalStateException("binance.replay.path is required with binance.source=replay");
+        }
+        reader = new FrameLogReader(Path.of(path));
+        running = true;
+        replayThread = new Thread(this::replay, "binance-replay");
+        replayThread.start();
+        log.info("Replaying {} in {} mode", path, mode);
+    }
+
+    private void replay() {
+        long frames = 0;
+        long maxBehindNs = 0;
+        long startNs = System.nanoTime();
+        for (int loop = 0; running && (loops == 0 || loop < loops); loop++) {
+            reader.rewind();
+            long loopStartNs = System.nanoTime();
+            long firstTimestampNs = Long.MIN_VALUE;
+            while (running && reader.next()) {
+                if (firstTimestampNs == Long.MIN_VALUE) {
+                    firstTimestampNs = reader.timestampNs();
+                }
+                long dueNs = switch (mode) {
+                    case ORIGINAL -> loopStartNs + (long) ((reader.timestampNs() - firstTimestampNs) / speed);
+                    case FIXED -> startNs + frames * intervalNs;
+                    case MAX -> 0;
+                };
+                if (mode != Mode.MAX) {
+                    maxBehindNs = Math.max(maxBehindNs, awaitDue(dueNs));
+                }
+                ingest.onMessage(reader.frame());
+                framesReplayed.increment();
+                frames++;
+            }
+        }
+        long elapsedNs = System.nanoTime() - startNs;
+        log.info("Replayed {} frames in {} ms ({} frames/s), at most {} us behind schedule", frames,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNs), frames * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsedNs, 1),
+                TimeUnit.NANOSECONDS.toMicros(maxBehindNs));
+    }
+
+    /**
+     * Wait until the frame is due.
+     *
+     * @return how late the frame is, 0 if it was not
+     */
+    private static long awaitDue(long dueNs) {
+        long remainingNs;
+        while ((remainingNs = dueNs - System.nanoTime()) > 0) {
+            if (remainingNs > SPIN_THRESHOLD_NS) {
+                LockSupport.parkNanos(remainingNs - SPIN_THRESHOLD_NS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        return -remainingNs;
+    }
+
+    @PreDestroy
+    public void close() throws Exception {
+        if (replayThread != null) {
+            running = false;
+            replayThread.join(5000);
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package eu.stefanangelov.jprime2025.core.spi;
+
+/**
+ * Callback of a {@link TickSubscriber}, implemented by the measurement engine.
+ */
+@FunctionalInterface
+public interface TickHandler {
+
+    /**
+     * Measure a received book ticker.
+     *
+     * @param symbol   the symbol, the per-symbol state of the measurement engine is looked up by it
+     * @param updateId the Binance order book update id, 0 if the transport does not carry it
+     * @param sequence the publisher's per-symbol sequence, 0 if the transport does not carry it
+     * @param sentAtNs the send timestamp carried by the transport
+     * @return the measured latency in nanoseconds, for transport specific metrics
+     */
+    long onTick(String symbol, long updateId, long sequence, long sentAtNs);
+}
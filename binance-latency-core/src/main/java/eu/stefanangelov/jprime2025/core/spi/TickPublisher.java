@@ -0,0 +1,39 @@
+package eu.stefanangelov.jprime2025.core.spi;
+
+import eu.stefanangelov.jprime2025.core.model.MutableBookTicker;
+
+/**
+ * Transport adapter the ingest pipeline hands every parsed book ticker to.
+ * <p>
+ * {@link #publish} is called on a websocket reader thread, or the {@code tick-conflator} thread with
+ * {@code book.conflation}, one ticker at a time even with several connections. The ticker is reused for the next
+ * frame, so an adapter must encode or copy it before returning and must not block on the transport for long.
+ */
+public interface TickPublisher {
+
+    /**
+     * @return the transport name matched against {@code tick.transport}, e.g. {@code aeron}
+     */
+    String transport();
+
+    /**
+     * Publish a book ticker.
+     *
+     * @param ticker   the parsed ticker, only valid for the duration of the call
+     * @param symbolId the id of the symbol in the ingest pipeline's {@code SymbolTable}, dense and stable
+     * @param symbol   the interned symbol name of {@code symbolId}
+     * @param sentAtNs the send timestamp from the {@code LatencyClock}, to be carried to the subscriber
+     * @throws Exception if the transport failed, counted as an ingest error
+     */
+    void publish(MutableBookTicker ticker, int symbolId, String symbol, long sentAtNs) throws Exception;
+
+    /**
+     * Whether the transport is falling behind, polled by the {@code TickConflator} before each publish so ticks are
+     * conflated rather than queued or dropped by the adapter. May be called from any thread.
+     *
+     * @return true to hold back publishing for now
+     */
+    default boolean isBackPressured() {
+        return false;
+    }
+}
@@ -0,0 +1,22 @@
+package eu.stefanangelov.jprime2025.core.spi;
+
+/**
+ * Transport adapter that receives book tickers and reports them to the measurement engine.
+ * <p>
+ * The adapter owns its connections and receiving threads, but does not deliver anything before
+ * {@link #start(TickHandler)} is called.
+ */
+public interface TickSubscriber {
+
+    /**
+     * @return the transport name matched against {@code tick.transport}, e.g. {@code aeron}
+     */
+    String transport();
+
+    /**
+     * Start receiving. May be called on any thread, the handler may be called from any number of receiving threads.
+     *
+     * @param handler called for every received book ticker
+     */
+    void start(TickHandler handler) throws Exception;
+}
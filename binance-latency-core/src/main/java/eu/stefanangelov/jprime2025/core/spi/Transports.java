@@ -0,0 +1,36 @@
+package eu.stefanangelov.jprime2025.core.spi;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Picks the transport adapter configured with {@code tick.transport} among the ones on the classpath.
+ */
+public final class Transports {
+
+    private Transports() {
+    }
+
+    /**
+     * @param adapters  the adapter beans
+     * @param transport the configured transport name, blank to take the only adapter present
+     * @param nameOf    the transport name of an adapter
+     * @return the selected adapter
+     * @throws IllegalStateException if no adapter, or more than one without a configured name, matches
+     */
+    public static <T> T select(List<T> adapters, String transport, Function<T, String> nameOf) {
+        if (transport == null || transport.isBlank()) {
+            if (adapters.size() == 1) {
+                return adapters.get(0);
+            }
+        } else {
+            for (T adapter : adapters) {
+                if (transport.equals(nameOf.apply(adapter))) {
+                    return adapter;
+                }
+            }
+        }
+        throw new IllegalStateException("Cannot select transport '" + transport + "' among "
+                + adapters.stream().map(nameOf).toList() + ", set tick.transport");
+    }
+}
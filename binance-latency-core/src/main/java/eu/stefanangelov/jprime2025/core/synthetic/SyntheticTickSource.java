@@ -0,0 +1,194 @@
+package eu.stefanangelov.jprime2025.core.synthetic;
+
+import eu.stefanangelov.jprime2025.core.clock.LatencyClock;
+import eu.stefanangelov.jprime2025.core.ingest.TickIngest;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generates book ticker frames at rates Binance never reaches, when {@code binance.source} is {@code synthetic}, to
+ * find where each transport's latency starts to climb with throughput.
+ * <p>
+ * Frames cycle through {@code binance.synthetic.symbols} symbols and go through the regular {@link TickIngest}, so
+ * parsing and publishing cost the same as for live frames. {@code binance.synthetic.payload-size} pads frames with a
+ * field the parser skips; what goes on the wire is still each transport's own encoding of the ticker.
+ * <p>
+ * {@code binance.synthetic.pattern} shapes the load:
+ * <ul>
+ *     <li>{@code steady}: ticks evenly spaced at {@code binance.synthetic.rate} per second</li>
+ *     <li>{@code burst}: {@code burst-size} ticks at once, at the same average rate</li>
+ *     <li>{@code ramp}: from {@code ramp.start-rate}, raised by {@code ramp.step-rate} every {@code ramp.step-s}
+ *     seconds up to {@code rate}; the current target is the {@code synthetic.rate.target} gauge</li>
+ * </ul>
+ * Scheduling is open loop: every tick is stamped with the time it was scheduled for, not the time the generator got
+ * round to it. When the transport pushes back and the generator falls behind, the wait counts towards latency
+ * instead of silently lowering the offered rate. How far behind the generator is shows in
+ * {@code synthetic.schedule.lag}.
+ */
+@Slf4j
+public class SyntheticTickSource {
+
+    public enum Pattern {
+        STEADY, BURST, RAMP
+    }
+
+    // Waits longer than this park the thread, shorter ones spin to hit the schedule precisely
+    private static final long SPIN_THRESHOLD_NS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long SECOND_NS = TimeUnit.SECONDS.toNanos(1);
+
+    private final TickIngest ingest;
+    private final LatencyClock clock;
+    private final boolean enabled;
+    private final String[] symbols;
+    private final Pattern pattern;
+    private final long rate;
+    private final int burstSize;
+    private final long rampStartRate;
+    private final long rampStepRate;
+    private final long rampStepNs;
+    private final int payloadSize;
+    private final long durationNs;
+    private final StringBuilder frame = new StringBuilder(256);
+    private volatile long targetRate;
+    private volatile long scheduleLagNs;
+    private volatile boolean running;
+    private Thread generatorThread;
+
+    public SyntheticTickSource(TickIngest ingest, LatencyClock clock, MeterRegistry meterRegistry,
+                               @Value("${binance.source:live}") String source,
+                               @Value("${binance.synthetic.symbols:16}") int symbolCount,
+                               @Value("${binance.synthetic.pattern:steady}") String pattern,
+                               @Value("${binance.synthetic.rate:10000}") long rate,
+                               @Value("${binance.synthetic.burst-size:100}") int burstSize,
+                               @Value("${binance.synthetic.ramp.start-rate:1000}") long rampStartRate,
+                               @Value("${binance.synthetic.ramp.step-rate:1000}") long rampStepRate,
+                               @Value("${binance.synthetic.ramp.step-s:10}") long rampStepS,
+                               @Value("${binance.synthetic.payload-size:0}") int payloadSize,
+                               @Value("${binance.synthetic.duration-s:0}") long durationS) {
+        this.ingest = ingest;
+        this.clock = clock;
+        this.enabled = "synthetic".equals(source);
+        this.symbols = new String[Math.max(symbolCount, 1)];
+        for (int i = 0; i < symbols.length; i++) {
+            symbols[i] = String.format("SYN%04dUSDT", i);
+        }
+        this.pattern = Pattern.valueOf(pattern.toUpperCase(Locale.ROOT));
+        this.rate = Math.max(rate, 1);
+        this.burstSize = Math.max(burstSize, 1);
+        this.rampStartRate = Math.max(Math.min(rampStartRate, this.rate), 1);
+        this.rampStepRate = Math.max(rampStepRate, 1);
+        this.rampStepNs = TimeUnit.SECONDS.toNanos(Math.max(rampStepS, 1));
+        this.payloadSize = payloadSize;
+        this.durationNs = TimeUnit.SECONDS.toNanos(durationS);
+        Gauge.builder("synthetic.rate.target", this, s -> s.targetRate)
+                .description("Ticks per second the synthetic source is currently scheduling")
+                .register(meterRegistry);
+        Gauge.builder("synthetic.schedule.lag", this, s -> s.scheduleLagNs)
+                .description("Nanoseconds the synthetic source was behind its schedule at the last tick")
+                .baseUnit("nanoseconds")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        generatorThread = new Thread(this::generate, "synthetic-ticks");
+        generatorThread.start();
+        log.info("Generating {} synthetic ticks per second over {} symbols, {} pattern", rate, symbols.length,
+                pattern);
+    }
+
+    private void generate() {
+        long currentRate = pattern == Pattern.RAMP ? rampStartRate : rate;
+        targetRate = currentRate;
+        long startNs = System.nanoTime();
+        // Translates scheduled System.nanoTime() instants into the latency clock
+        long clockOffsetNs = clock.nanos() - System.nanoTime();
+        long nextStepNs = startNs + rampStepNs;
+        double dueNs = startNs;
+        long ticks = 0;
+        while (running) {
+            long due = (long) dueNs;
+            if (durationNs > 0 && due - startNs >= durationNs) {
+                break;
+            }
+            long lagNs = awaitDue(due);
+            scheduleLagNs = lagNs;
+            ingest.onMessage(nextFrame(ticks), due + clockOffsetNs);
+            ticks++;
+            if (pattern != Pattern.BURST || ticks % burstSize == 0) {
+                int spacing = pattern == Pattern.BURST ? burstSize : 1;
+                dueNs += (double) SECOND_NS * spacing / currentRate;
+            }
+            if (pattern == Pattern.RAMP && dueNs >= nextStepNs && currentRate < rate) {
+                currentRate = Math.min(currentRate + rampStepRate, rate);
+                targetRate = currentRate;
+                nextStepNs += rampStepNs;
+                log.info("Synthetic rate raised to {} ticks per second", currentRate);
+            }
+        }
+        long elapsedNs = System.nanoTime() - startNs;
+        log.info("Generated {} synthetic ticks in {} ms ({} ticks/s)", ticks, TimeUnit.NANOSECONDS.toMillis(elapsedNs),
+                ticks * SECOND_NS / Math.max(elapsedNs, 1));
+    }
+
+    /**
+     * Write a bookTicker frame for the given tick into the reused builder, with prices moving a little every tick.
+     */
+    private CharSequence nextFrame(long tick) {
+        long move = tick & 0x3FF;
+        frame.setLength(0);
+        frame.append("{\"u\":").append(tick)
+                .append(",\"s\":\"").append(symbols[(int) (tick % symbols.length)])
+                .append("\",\"b\":\"").append(25_000 + move).append(".10000000")
+                .append("\",\"B\":\"").append(1 + (move & 0xF)).append(".50000000")
+                .append("\",\"a\":\"").append(25_001 + move).append(".20000000")
+                .append("\",\"A\":\"").append(2 + (move & 0xF)).append(".25000000")
+                .append('"');
+        int padding = payloadSize - frame.length() - 10; // ,"pad":"" and the closing brace
+        if (padding > 0) {
+            frame.append(",\"pad\":\"");
+            for (int i = 0; i < padding; i++) {
+                frame.append('x');
+            }
+            frame.append('"');
+        }
+        return frame.append('}');
+    }
+
+    /**
+     * Wait until the tick is due.
+     *
+     * @return how late the tick is, 0 if it was not
+     */
+    private static long awaitDue(long dueNs) {
+        long remainingNs;
+        while ((remainingNs = dueNs - System.nanoTime()) > 0) {
+            if (remainingNs > SPIN_THRESHOLD_NS) {
+                LockSupport.parkNanos(remainingNs - SPIN_THRESHOLD_NS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        return -remainingNs;
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (generatorThread != null) {
+            running = false;
+            generatorThread.join(5000);
+        }
+    }
+}
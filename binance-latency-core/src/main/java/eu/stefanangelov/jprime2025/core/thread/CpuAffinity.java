@@ -0,0 +1,43 @@
+package eu.stefanangelov.jprime2025.core.thread;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Best effort CPU pinning of the calling thread with {@code taskset}, without a native affinity library.
+ * Only works on Linux; elsewhere, or when {@code taskset} is missing, the hint is logged and ignored.
+ */
+@Slf4j
+public final class CpuAffinity {
+
+    private CpuAffinity() {
+    }
+
+    /**
+     * @param cpus a {@code taskset} CPU list such as {@code 3} or {@code 2-3}
+     */
+    public static void pinCurrentThread(String cpus) {
+        try {
+            // Resolves to <pid>/task/<tid> for the calling thread
+            Path threadSelf = Files.readSymbolicLink(Path.of("/proc/thread-self"));
+            String tid = threadSelf.getFileName().toString();
+            Process process = new ProcessBuilder("taskset", "-pc", cpus, tid)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            if (process.waitFor(5, TimeUnit.SECONDS) && process.exitValue() == 0) {
+                log.info("Pinned thread {} to CPUs {}", Thread.currentThread().getName(), cpus);
+            } else {
+                log.warn("Could not pin thread {} to CPUs {}", Thread.currentThread().getName(), cpus);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("CPU affinity hint {} ignored for thread {}: {}", cpus, Thread.currentThread().getName(),
+                    e.toString());
+        }
+    }
+}
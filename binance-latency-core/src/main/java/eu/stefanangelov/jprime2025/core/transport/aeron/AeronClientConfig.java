@@ -0,0 +1,114 @@
+package eu.stefanangelov.jprime2025.core.transport.aeron;
+
+import io.aeron.Aeron;
+import io.aeron.ChannelUri;
+import io.aeron.CommonContext;
+import io.aeron.driver.MediaDriver;
+import io.aeron.driver.ThreadingMode;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.CloseHelper;
+import org.agrona.concurrent.IdleStrategy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Locale;
+
+/**
+ * Connects the Aeron client to a media driver embedded in this process or, with {@code AERON_MEDIA_DRIVER=external},
+ * to the one running in {@code AERON_DIR}. A service tunes the embedded driver with a {@link DriverCustomizer} bean.
+ */
+@Slf4j
+@Configuration
+public class AeronClientConfig {
+
+    private MediaDriver mediaDriver;
+
+    @Bean(destroyMethod = "close")
+    public Aeron aeron(@Value("${AERON_MEDIA_DRIVER:embedded}") String mediaDriverMode,
+                       @Value("${AERON_DIR:}") String aeronDirectory,
+                       @Value("${AERON_THREADING_MODE:DEDICATED}") String threadingMode,
+                       @Value("${AERON_DRIVER_IDLE_STRATEGY:spin}") String idleStrategy,
+                       @Value("${AERON_TERM_BUFFER_LENGTH:0}") int termBufferLength,
+                       @Value("${AERON_MTU_LENGTH:0}") int mtuLength,
+                       ObjectProvider<DriverCustomizer> customizers) {
+        Aeron.Context context = new Aeron.Context();
+        switch (mediaDriverMode.toLowerCase(Locale.ROOT)) {
+            case "external" -> {
+                if (!aeronDirectory.isBlank()) {
+                    context.aeronDirectoryName(aeronDirectory);
+                }
+                log.info("Connecting to external media driver in {}", context.aeronDirectoryName());
+            }
+            case "embedded" -> {
+                final MediaDriver.Context mediaDriverCtx = new MediaDriver.Context()
+                        .dirDeleteOnStart(true)
+                        .dirDeleteOnShutdown(true)
+                        .threadingMode(ThreadingMode.valueOf(threadingMode.toUpperCase(Locale.ROOT)))
+                        .conductorIdleStrategy(idleStrategy(idleStrategy))
+                        .senderIdleStrategy(idleStrategy(idleStrategy))
+                        .receiverIdleStrategy(idleStrategy(idleStrategy))
+                        .sharedNetworkIdleStrategy(idleStrategy(idleStrategy))
+                        .sharedIdleStrategy(idleStrategy(idleStrategy));
+                if (!aeronDirectory.isBlank()) {
+                    mediaDriverCtx.aeronDirectoryName(aeronDirectory);
+                }
+                if (termBufferLength > 0) {
+                    mediaDriverCtx.publicationTermBufferLength(termBufferLength)
+                            .ipcTermBufferLength(termBufferLength);
+                }
+                if (mtuLength > 0) {
+                    mediaDriverCtx.mtuLength(mtuLength)
+                            .ipcMtuLength(mtuLength);
+                }
+                customizers.orderedStream().forEach(customizer -> customizer.customize(mediaDriverCtx));
+                this.mediaDriver = MediaDriver.launchEmbedded(mediaDriverCtx);
+                context.aeronDirectoryName(mediaDriver.aeronDirectoryName());
+                log.info("Launched embedded media driver in {} with threading mode {}",
+                        mediaDriver.aeronDirectoryName(), mediaDriverCtx.threadingMode());
+            }
+            default -> throw new IllegalArgumentException("Unknown media driver mode: " + mediaDriverMode);
+        }
+        return Aeron.connect(context);
+    }
+
+    /**
+     * Add the configured term length and MTU to a publication channel, unless the channel sets them already.
+     *
+     * @param channel          the channel URI
+     * @param termBufferLength the term length, ignored when not positive
+     * @param mtuLength        the MTU, ignored when not positive
+     * @return the channel URI with the parameters applied
+     */
+    public static String publicationChannel(String channel, int termBufferLength, int mtuLength) {
+        ChannelUri channelUri = ChannelUri.parse(channel);
+        if (termBufferLength > 0 && channelUri.get(CommonContext.TERM_LENGTH_PARAM_NAME) == null) {
+            channelUri.put(CommonContext.TERM_LENGTH_PARAM_NAME, Integer.toString(termBufferLength));
+        }
+        if (mtuLength > 0 && channelUri.get(CommonContext.MTU_LENGTH_PARAM_NAME) == null) {
+            channelUri.put(CommonContext.MTU_LENGTH_PARAM_NAME, Integer.toString(mtuLength));
+        }
+        return channelUri.toString();
+    }
+
+    // Idle strategies keep state, so every driver agent gets its own instance
+    private static IdleStrategy idleStrategy(String name) {
+        return io.aeron.driver.Configuration.agentIdleStrategy(name, null);
+    }
+
+    /**
+     * Service specific settings of the embedded media driver, applied after the shared ones.
+     */
+    @FunctionalInterface
+    public interface DriverCustomizer {
+
+        void customize(MediaDriver.Context context);
+    }
+
+    @PreDestroy
+    public void close() {
+        CloseHelper.quietClose(mediaDriver);
+    }
+}
@@ -0,0 +1,77 @@
+package eu.stefanangelov.jprime2025.core.transport.aeron;
+
+import eu.stefanangelov.jprime2025.core.codec.FixedPoint;
+import org.agrona.DirectBuffer;
+
+import static eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout.ASK_PRICE_OFFSET;
+import static eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout.ASK_QTY_OFFSET;
+import static eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout.BID_PRICE_OFFSET;
+import static eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout.BID_QTY_OFFSET;
+import static eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout.BYTE_ORDER;
+import static eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout.SEQUENCE_OFFSET;
+import static eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout.SYMBOL_ID_OFFSET;
+import static eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout.SYMBOL_LENGTH_OFFSET;
+import static eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout.SYMBOL_OFFSET;
+import static eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout.TIMESTAMP_OFFSET;
+import static eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout.UPDATE_ID_OFFSET;
+
+/**
+ * Flyweight decoder for the fixed {@link BookTickerLayout} written by {@link BookTickerEncoder}. Prices and
+ * quantities are longs scaled by {@link FixedPoint#SCALE}.
+ */
+public final class BookTickerDecoder {
+
+    private DirectBuffer buffer;
+    private int offset;
+
+    public BookTickerDecoder wrap(DirectBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+
+    public long timestamp() {
+        return buffer.getLong(offset + TIMESTAMP_OFFSET, BYTE_ORDER);
+    }
+
+    public long bidPrice() {
+        return buffer.getLong(offset + BID_PRICE_OFFSET, BYTE_ORDER);
+    }
+
+    public long bidQty() {
+        return buffer.getLong(offset + BID_QTY_OFFSET, BYTE_ORDER);
+    }
+
+    public long askPrice() {
+        return buffer.getLong(offset + ASK_PRICE_OFFSET, BYTE_ORDER);
+    }
+
+    public long askQty() {
+        return buffer.getLong(offset + ASK_QTY_OFFSET, BYTE_ORDER);
+    }
+
+    public long updateId() {
+        return buffer.getLong(offset + UPDATE_ID_OFFSET, BYTE_ORDER);
+    }
+
+    public long sequence() {
+        return buffer.getLong(offset + SEQUENCE_OFFSET, BYTE_ORDER);
+    }
+
+    public int symbolId() {
+        return buffer.getInt(offset + SYMBOL_ID_OFFSET, BYTE_ORDER);
+    }
+
+    public int symbolLength() {
+        return buffer.getByte(offset + SYMBOL_LENGTH_OFFSET) & 0xFF;
+    }
+
+    /**
+     * Materialise the symbol name. This allocates, so callers should cache the result by {@link #symbolId()}.
+     *
+     * @return the symbol name
+     */
+    public String symbol() {
+        return buffer.getStringWithoutLengthAscii(offset + SYMBOL_OFFSET, symbolLength());
+    }
+}
@@ -0,0 +1,88 @@
+package eu.stefanangelov.jprime2025.core.transport.aeron;
+
+import eu.stefanangelov.jprime2025.core.codec.SymbolTable;
+import org.agrona.MutableDirectBuffer;
+
+import static eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout.ASK_PRICE_OFFSET;
+import static eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout.ASK_QTY_OFFSET;
+import static eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout.BID_PRICE_OFFSET;
+import static eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout.BID_QTY_OFFSET;
+import static eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout.BLOCK_LENGTH;
+import static eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout.BYTE_ORDER;
+import static eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout.MAX_SYMBOL_LENGTH;
+import static eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout.SEQUENCE_OFFSET;
+import static eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout.SYMBOL_ID_OFFSET;
+import static eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout.SYMBOL_LENGTH_OFFSET;
+import static eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout.SYMBOL_OFFSET;
+import static eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout.TIMESTAMP_OFFSET;
+import static eu.stefanangelov.jprime2025.core.transport.aeron.BookTickerLayout.UPDATE_ID_OFFSET;
+
+/**
+ * Flyweight encoder writing a {@code BookTicker} in the fixed {@link BookTickerLayout}.
+ */
+public final class BookTickerEncoder {
+
+    private MutableDirectBuffer buffer;
+    private int offset;
+
+    public BookTickerEncoder wrap(MutableDirectBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+
+    public int encodedLength() {
+        return BLOCK_LENGTH;
+    }
+
+    public BookTickerEncoder timestamp(long timestamp) {
+        buffer.putLong(offset + TIMESTAMP_OFFSET, timestamp, BYTE_ORDER);
+        return this;
+    }
+
+    public BookTickerEncoder bidPrice(long bidPrice) {
+        buffer.putLong(offset + BID_PRICE_OFFSET, bidPrice, BYTE_ORDER);
+        return this;
+    }
+
+    public BookTickerEncoder bidQty(long bidQty) {
+        buffer.putLong(offset + BID_QTY_OFFSET, bidQty, BYTE_ORDER);
+        return this;
+    }
+
+    public BookTickerEncoder askPrice(long askPrice) {
+        buffer.putLong(offset + ASK_PRICE_OFFSET, askPrice, BYTE_ORDER);
+        return this;
+    }
+
+    public BookTickerEncoder askQty(long askQty) {
+        buffer.putLong(offset + ASK_QTY_OFFSET, askQty, BYTE_ORDER);
+        return this;
+    }
+
+    public BookTickerEncoder updateId(long updateId) {
+        buffer.putLong(offset + UPDATE_ID_OFFSET, updateId, BYTE_ORDER);
+        return this;
+    }
+
+    public BookTickerEncoder sequence(long sequence) {
+        buffer.putLong(offset + SEQUENCE_OFFSET, sequence, BYTE_ORDER);
+        return this;
+    }
+
+    /**
+     * Write the symbol id together with its ASCII name so a subscriber can resolve ids it has not seen yet.
+     *
+     * @param symbolId the id assigned by {@link SymbolTable}
+     * @param symbol   the symbol name, truncated to {@link BookTickerLayout#MAX_SYMBOL_LENGTH} characters
+     */
+    public BookTickerEncoder symbol(int symbolId, CharSequence symbol) {
+        int length = Math.min(symbol.length(), MAX_SYMBOL_LENGTH);
+        buffer.putInt(offset + SYMBOL_ID_OFFSET, symbolId, BYTE_ORDER);
+        buffer.putByte(offset + SYMBOL_LENGTH_OFFSET, (byte) length);
+        for (int i = 0; i < length; i++) {
+            buffer.putByte(offset + SYMBOL_OFFSET + i, (byte) symbol.charAt(i));
+        }
+        return this;
+    }
+}
@@ -0,0 +1,42 @@
+package eu.stefanangelov.jprime2025.core.transport.aeron;
+
+import eu.stefanangelov.jprime2025.core.codec.FixedPoint;
+
+import java.nio.ByteOrder;
+
+/**
+ * Fixed little-endian layout of a book ticker on the Aeron streams, shared by {@link BookTickerEncoder} and
+ * {@link BookTickerDecoder}.
+ * <pre>
+ *  0  timestamp      int64
+ *  8  bidPrice       int64 (scaled by {@link FixedPoint#SCALE})
+ * 16  bidQty         int64 (scaled)
+ * 24  askPrice       int64 (scaled)
+ * 32  askQty         int64 (scaled)
+ * 40  updateId       int64, Binance order book update id
+ * 48  sequence       int64, per-symbol publish sequence
+ * 56  symbolId       int32
+ * 60  symbolLength   uint8
+ * 61  symbol         ASCII, up to {@link #MAX_SYMBOL_LENGTH} bytes
+ * </pre>
+ */
+public final class BookTickerLayout {
+
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    public static final int TIMESTAMP_OFFSET = 0;
+    public static final int BID_PRICE_OFFSET = 8;
+    public static final int BID_QTY_OFFSET = 16;
+    public static final int ASK_PRICE_OFFSET = 24;
+    public static final int ASK_QTY_OFFSET = 32;
+    public static final int UPDATE_ID_OFFSET = 40;
+    public static final int SEQUENCE_OFFSET = 48;
+    public static final int SYMBOL_ID_OFFSET = 56;
+    public static final int SYMBOL_LENGTH_OFFSET = 60;
+    public static final int SYMBOL_OFFSET = 61;
+    public static final int MAX_SYMBOL_LENGTH = 19;
+    public static final int BLOCK_LENGTH = SYMBOL_OFFSET + MAX_SYMBOL_LENGTH;
+
+    private BookTickerLayout() {
+    }
+}
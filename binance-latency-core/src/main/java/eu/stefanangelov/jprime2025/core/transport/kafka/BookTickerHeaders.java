@@ -0,0 +1,75 @@
+package eu.stefanangelov.jprime2025.core.transport.kafka;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+/**
+ * Record headers attached to every book ticker. Values are big-endian, the latency measurement service reads them
+ * without deserializing the record value.
+ */
+public final class BookTickerHeaders {
+
+    /**
+     * Send timestamp in nanoseconds of the producer's {@code LatencyClock}, a big-endian int64.
+     */
+    public static final String SEND_TIMESTAMP = "send-ts-ns";
+
+    /**
+     * Binance order book update id, a big-endian int64.
+     */
+    public static final String UPDATE_ID = "update-id";
+
+    /**
+     * Per-symbol publish sequence starting at 1, a big-endian int64.
+     */
+    public static final String SEQUENCE = "seq";
+
+    private BookTickerHeaders() {
+    }
+
+    public static byte[] encodeLong(long value) {
+        byte[] bytes = new byte[Long.BYTES];
+        for (int i = Long.BYTES - 1; i >= 0; i--) {
+            bytes[i] = (byte) value;
+            value >>>= 8;
+        }
+        return bytes;
+    }
+
+    /**
+     * @param headers the record headers
+     * @return the send timestamp, or {@link Long#MIN_VALUE} when the header is missing
+     */
+    public static long sendTimestamp(Headers headers) {
+        return decodeLong(headers, SEND_TIMESTAMP, Long.MIN_VALUE);
+    }
+
+    /**
+     * @param headers the record headers
+     * @return the Binance update id, or 0 when the header is missing
+     */
+    public static long updateId(Headers headers) {
+        return decodeLong(headers, UPDATE_ID, 0);
+    }
+
+    /**
+     * @param headers the record headers
+     * @return the per-symbol publish sequence, or 0 when the header is missing
+     */
+    public static long sequence(Headers headers) {
+        return decodeLong(headers, SEQUENCE, 0);
+    }
+
+    private static long decodeLong(Headers headers, String name, long missing) {
+        Header header = headers.lastHeader(name);
+        if (header == null || header.value().length != Long.BYTES) {
+            return missing;
+        }
+        byte[] bytes = header.value();
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = (value << 8) | (bytes[i] & 0xFF);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,53 @@
+package eu.stefanangelov.jprime2025.core.transport.kafka;
+
+import eu.stefanangelov.jprime2025.core.codec.FixedPoint;
+import eu.stefanangelov.jprime2025.core.model.MutableBookTicker;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Compact binary encoding of a {@link MutableBookTicker}, big-endian like the rest of the Kafka protocol.
+ * <pre>
+ *  0  magic          int8, {@link #MAGIC}
+ *  1  bidPrice       int64 (scaled by {@link FixedPoint#SCALE})
+ *  9  bidQty         int64 (scaled)
+ * 17  askPrice       int64 (scaled)
+ * 25  askQty         int64 (scaled)
+ * 33  symbolLength   uint8
+ * 34  symbol         ASCII
+ * </pre>
+ * The send timestamp is not part of the value, it travels in the record header named
+ * {@link BookTickerHeaders#SEND_TIMESTAMP}.
+ * The magic byte can never be {@code '{'}, so the {@code BookTickerDeserializer} of the latency measurement service
+ * tells binary values apart from JSON ones written by the websocket service's {@code BookTickerJsonSerializer}.
+ * <p>
+ * The producer serializes in {@code send()} on the calling thread, so the reused ticker can be mutated again as soon
+ * as {@code send()} returns.
+ */
+public class BookTickerSerializer implements Serializer<MutableBookTicker> {
+
+    public static final byte MAGIC = 1;
+    public static final int SYMBOL_OFFSET = 34;
+
+    @Override
+    public byte[] serialize(String topic, MutableBookTicker ticker) {
+        if (ticker == null) {
+            return null;
+        }
+        CharSequence symbol = ticker.getSymbol();
+        int length = Math.min(symbol.length(), 255);
+        byte[] payload = new byte[SYMBOL_OFFSET + length];
+        ByteBuffer buffer = ByteBuffer.wrap(payload)
+                .put(MAGIC)
+                .putLong(ticker.getBidPrice())
+                .putLong(ticker.getBidQty())
+                .putLong(ticker.getAskPrice())
+                .putLong(ticker.getAskQty())
+                .put((byte) length);
+        for (int i = 0; i < length; i++) {
+            buffer.put((byte) symbol.charAt(i));
+        }
+        return payload;
+    }
+}
@@ -0,0 +1,59 @@
+package eu.stefanangelov.jprime2025.core.transport.nats;
+
+import io.nats.client.Connection;
+import io.nats.client.JetStreamApiException;
+import io.nats.client.JetStreamManagement;
+import io.nats.client.api.StorageType;
+import io.nats.client.api.StreamConfiguration;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Creates the JetStream stream holding the book tickers, or updates it when it exists with a different
+ * configuration. Producer and latency service both call this on startup, so neither depends on the other
+ * starting first.
+ */
+@Slf4j
+public final class BookTickerStream {
+
+    /**
+     * Subject of the send timestamps reflected by the latency service, outside {@code book.ticker.>} so neither the
+     * stream nor a wildcard subscriber picks them up.
+     */
+    public static final String ECHO_SUBJECT = "book.echo";
+
+    private BookTickerStream() {
+    }
+
+    /**
+     * @param connection the NATS connection
+     * @param name       the stream name
+     * @param subject    the subject, usually a wildcard such as {@code book.ticker.*}
+     * @param storage    {@code memory} or {@code file}
+     * @param maxAge     how long messages are retained
+     */
+    public static void ensure(Connection connection, String name, String subject, String storage, Duration maxAge)
+            throws Exception {
+        StreamConfiguration configuration = StreamConfiguration.builder()
+                .name(name)
+                .subjects(subject)
+                .storageType(StorageType.valueOf(capitalize(storage)))
+                .maxAge(maxAge)
+                .build();
+        JetStreamManagement management = connection.jetStreamManagement();
+        try {
+            management.addStream(configuration);
+            log.info("Created JetStream stream {} on {}", name, subject);
+        } catch (JetStreamApiException e) {
+            management.updateStream(configuration);
+            log.info("Updated JetStream stream {} on {}", name, subject);
+        }
+    }
+
+    private static String capitalize(String value) {
+        String lower = value.toLowerCase(Locale.ROOT);
+        return Character.toUpperCase(lower.charAt(0)) + lower.substring(1);
+    }
+}
@@ -0,0 +1,66 @@
+package eu.stefanangelov.jprime2025.core.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FixedPointTest {
+
+    @Test
+    void parsesBinanceDecimals() {
+        assertEquals(6_732_101_000_000L, FixedPoint.parse("67321.01000000"));
+        assertEquals(1, FixedPoint.parse("0.00000001"));
+        assertEquals(FixedPoint.SCALE, FixedPoint.parse("1"));
+        assertEquals(FixedPoint.SCALE / 2, FixedPoint.parse(".5"));
+        assertEquals(5 * FixedPoint.SCALE, FixedPoint.parse("5."));
+        assertEquals(0, FixedPoint.parse("0.00000000"));
+    }
+
+    @Test
+    void parsesARangeOfALongerText() {
+        assertEquals(2_535_190_000L, FixedPoint.parse("\"b\":\"25.35190000\"", 5, 16));
+    }
+
+    @Test
+    void truncatesDigitsBeyondTheScale() {
+        assertEquals(123_456_789L, FixedPoint.parse("1.234567899"));
+    }
+
+    @Test
+    void rejectsMalformedDecimals() {
+        for (String value : new String[]{"", ".", "1.2.3", "1..2", "-1", "1e5", "12a", " 1", "1.234567891x"}) {
+            assertThrows(NumberFormatException.class, () -> FixedPoint.parse(value), value);
+        }
+    }
+
+    @Test
+    void rejectsDecimalsOutOfRange() {
+        assertEquals(Long.MAX_VALUE / FixedPoint.SCALE * FixedPoint.SCALE,
+                FixedPoint.parse(Long.toString(Long.MAX_VALUE / FixedPoint.SCALE)));
+        assertThrows(NumberFormatException.class,
+                () -> FixedPoint.parse(Long.toString(Long.MAX_VALUE / FixedPoint.SCALE + 1)));
+        assertThrows(NumberFormatException.class, () -> FixedPoint.parse("99999999999999999999"));
+    }
+
+    @Test
+    void formatsAndParsesBack() {
+        byte[] dst = new byte[32];
+        for (long value : new long[]{0, 1, 99_999_999, FixedPoint.SCALE, 6_732_101_000_000L,
+                Long.MAX_VALUE / FixedPoint.SCALE * FixedPoint.SCALE}) {
+            int end = FixedPoint.format(value, dst, 3);
+            String text = new String(dst, 3, end - 3, StandardCharsets.US_ASCII);
+            assertEquals(FixedPoint.DECIMALS, text.length() - text.indexOf('.') - 1, text);
+            assertEquals(value, FixedPoint.parse(text), text);
+        }
+    }
+
+    @Test
+    void formatsLikeBinance() {
+        byte[] dst = new byte[32];
+        int end = FixedPoint.format(FixedPoint.parse("25.3519"), dst, 0);
+        assertEquals("25.35190000", new String(dst, 0, end, StandardCharsets.US_ASCII));
+    }
+}
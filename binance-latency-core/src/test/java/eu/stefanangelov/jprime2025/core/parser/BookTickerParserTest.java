@@ -0,0 +1,118 @@
+package eu.stefanangelov.jprime2025.core.parser;
+
+import eu.stefanangelov.jprime2025.core.model.MutableBookTicker;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookTickerParserTest {
+
+    private static final String TICKER = "{\"u\":400900217,\"s\":\"BNBUSDT\",\"b\":\"25.35190000\","
+            + "\"B\":\"31.21000000\",\"a\":\"25.36520000\",\"A\":\"40.66000000\"}";
+
+    private final BookTickerParser parser = new BookTickerParser();
+    private final MutableBookTicker ticker = new MutableBookTicker();
+
+    @Test
+    void parsesPlainFrame() {
+        assertTrue(parser.parse(TICKER, ticker));
+        assertBnbTicker(400900217L);
+    }
+
+    @Test
+    void parsesCombinedStreamFrame() {
+        assertTrue(parser.parse("{\"stream\":\"bnbusdt@bookTicker\",\"data\":" + TICKER + "}", ticker));
+        assertBnbTicker(400900217L);
+    }
+
+    @Test
+    void parsesQuotedUpdateId() {
+        String frame = "{\"u\":\"400900217\",\"s\":\"BNBUSDT\",\"b\":\"25.35190000\",\"B\":\"31.21000000\","
+                + "\"a\":\"25.36520000\",\"A\":\"40.66000000\"}";
+
+        assertTrue(parser.parse(frame, ticker));
+        assertBnbTicker(400900217L);
+    }
+
+    @Test
+    void parsesReorderedKeysAndWhitespace() {
+        String frame = "{ \"A\" : \"40.66000000\", \"a\" : \"25.36520000\", \"s\" : \"BNBUSDT\","
+                + " \"B\" : \"31.21000000\", \"b\" : \"25.35190000\", \"u\" : 400900217 }";
+
+        assertTrue(parser.parse(frame, ticker));
+        assertBnbTicker(400900217L);
+    }
+
+    @Test
+    void skipsFieldsOutsideTheBookTicker() {
+        String frame = "{\"e\":\"bookTicker\",\"u\":400900217,\"E\":1568014460893,\"T\":1568014460891,"
+                + "\"s\":\"BNBUSDT\",\"b\":\"25.35190000\",\"B\":\"31.21000000\",\"a\":\"25.36520000\","
+                + "\"A\":\"40.66000000\"}";
+
+        assertTrue(parser.parse(frame, ticker));
+        assertBnbTicker(400900217L);
+    }
+
+    @Test
+    void parsesFrameWithoutUpdateId() {
+        String frame = "{\"s\":\"BNBUSDT\",\"b\":\"25.35190000\",\"B\":\"31.21000000\",\"a\":\"25.36520000\","
+                + "\"A\":\"40.66000000\"}";
+
+        assertTrue(parser.parse(frame, ticker));
+        assertBnbTicker(0L);
+    }
+
+    @Test
+    void rejectsSubscriptionResponses() {
+        assertFalse(parser.parse("{\"result\":null,\"id\":1}", ticker));
+        assertFalse(parser.parse("{\"error\":{\"code\":2,\"msg\":\"Invalid request\"},\"id\":3}", ticker));
+        assertFalse(parser.parse("{}", ticker));
+        assertFalse(parser.parse("", ticker));
+    }
+
+    @Test
+    void rejectsFramesMissingAField() {
+        String frame = "{\"u\":400900217,\"s\":\"BNBUSDT\",\"b\":\"25.35190000\",\"B\":\"31.21000000\","
+                + "\"a\":\"25.36520000\"}";
+
+        assertFalse(parser.parse(frame, ticker));
+    }
+
+    @Test
+    void rejectsTruncatedFrames() {
+        for (int length = 0; length < TICKER.length() - 2; length++) {
+            String frame = TICKER.substring(0, length);
+            assertFalse(parser.parse(frame, ticker), frame);
+        }
+    }
+
+    @Test
+    void rejectsMalformedValues() {
+        String frame = "{\"u\":400900217,\"s\":\"BNBUSDT\",\"b\":\"25.35.19\",\"B\":\"31.21000000\","
+                + "\"a\":\"25.36520000\",\"A\":\"40.66000000\"}";
+
+        assertThrows(NumberFormatException.class, () -> parser.parse(frame, ticker));
+    }
+
+    @Test
+    void resetsTheTickerBetweenFrames() {
+        assertTrue(parser.parse(TICKER, ticker));
+
+        assertFalse(parser.parse("{\"result\":null,\"id\":1}", ticker));
+        assertEquals(0L, ticker.getUpdateId());
+        assertEquals("", ticker.getSymbol().toString());
+        assertEquals(0L, ticker.getBidPrice());
+    }
+
+    private void assertBnbTicker(long updateId) {
+        assertEquals(updateId, ticker.getUpdateId());
+        assertEquals("BNBUSDT", ticker.getSymbol().toString());
+        assertEquals(2_535_190_000L, ticker.getBidPrice());
+        assertEquals(3_121_000_000L, ticker.getBidQty());
+        assertEquals(2_536_520_000L, ticker.getAskPrice());
+        assertEquals(4_066_000_000L, ticker.getAskQty());
+    }
+}
@@ -0,0 +1,57 @@
+package eu.stefanangelov.jprime2025.core.transport.aeron;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BookTickerCodecTest {
+
+    private final UnsafeBuffer buffer = new UnsafeBuffer(new byte[256]);
+    private final BookTickerEncoder encoder = new BookTickerEncoder();
+    private final BookTickerDecoder decoder = new BookTickerDecoder();
+
+    @Test
+    void decodesWhatWasEncoded() {
+        int offset = 32;
+        encoder.wrap(buffer, offset)
+                .timestamp(1_700_000_000_123_456_789L)
+                .bidPrice(6_732_101_000_000L)
+                .bidQty(123_456_789L)
+                .askPrice(6_732_102_000_000L)
+                .askQty(1L)
+                .updateId(400_900_217L)
+                .sequence(42L)
+                .symbol(7, "BTCUSDT");
+
+        decoder.wrap(buffer, offset);
+        assertEquals(1_700_000_000_123_456_789L, decoder.timestamp());
+        assertEquals(6_732_101_000_000L, decoder.bidPrice());
+        assertEquals(123_456_789L, decoder.bidQty());
+        assertEquals(6_732_102_000_000L, decoder.askPrice());
+        assertEquals(1L, decoder.askQty());
+        assertEquals(400_900_217L, decoder.updateId());
+        assertEquals(42L, decoder.sequence());
+        assertEquals(7, decoder.symbolId());
+        assertEquals(7, decoder.symbolLength());
+        assertEquals("BTCUSDT", decoder.symbol());
+        assertEquals(BookTickerLayout.BLOCK_LENGTH, encoder.encodedLength());
+    }
+
+    @Test
+    void truncatesLongSymbols() {
+        String symbol = "A".repeat(BookTickerLayout.MAX_SYMBOL_LENGTH + 5);
+        encoder.wrap(buffer, 0).symbol(1, symbol);
+
+        decoder.wrap(buffer, 0);
+        assertEquals(BookTickerLayout.MAX_SYMBOL_LENGTH, decoder.symbolLength());
+        assertEquals(symbol.substring(0, BookTickerLayout.MAX_SYMBOL_LENGTH), decoder.symbol());
+    }
+
+    @Test
+    void keepsNegativeTimestamps() {
+        encoder.wrap(buffer, 0).timestamp(-5L);
+
+        assertEquals(-5L, decoder.wrap(buffer, 0).timestamp());
+    }
+}
@@ -0,0 +1,52 @@
+package eu.stefanangelov.jprime2025.harness;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders the results of all runs as one Markdown table, latencies in microseconds.
+ */
+final class ComparisonReport {
+
+    private static final String[] PERCENTILES = {"50.0", "90.0", "99.0", "99.9", "99.99"};
+    private static final String HEADER = "| transport | published/s | received/s | missing "
+            + "| p50 | p90 | p99 | p99.9 | p99.99 | max | alloc MB/s |\n";
+
+    private ComparisonReport() {
+    }
+
+    static String render(List<RunResult> results, Map<String, String> settings) {
+        StringBuilder report = new StringBuilder("# Transport comparison\n\n");
+        settings.forEach((key, value) ->
+                report.append("- `").append(key).append("`: ").append(value).append('\n'));
+        report.append('\n')
+                .append(HEADER)
+                .append("|---|---:|---:|---:|---:|---:|---:|---:|---:|---:|---:|\n");
+        for (RunResult result : results) {
+            report.append("| ").append(result.transport().id())
+                    .append(" | ").append(rate(result.published(), result.seconds()))
+                    .append(" | ").append(rate(result.received(), result.seconds()))
+                    .append(" | ").append(result.missing());
+            for (String percentile : PERCENTILES) {
+                report.append(" | ").append(micros(result.percentiles().get(percentile)));
+            }
+            report.append(" | ").append(micros(result.percentiles().get("max")))
+                    .append(" | ").append(String.format(Locale.ROOT, "%.1f",
+                            result.allocatedBytes() / result.seconds() / (1024 * 1024)))
+                    .append(" |\n");
+        }
+        report.append("\nLatencies in microseconds from the consumers' HdrHistograms. ")
+                .append("Missing ticks are gaps in the per-symbol publish sequence seen by the consumer. ")
+                .append("Allocation is JVM wide and includes the embedded broker.\n");
+        return report.toString();
+    }
+
+    private static String rate(long count, double seconds) {
+        return String.format(Locale.ROOT, "%.0f", count / seconds);
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1000.0);
+    }
+}
@@ -0,0 +1,19 @@
+package eu.stefanangelov.jprime2025.harness;
+
+import java.util.Map;
+
+/**
+ * What one transport achieved during the measured part of its run.
+ *
+ * @param transport      the transport
+ * @param seconds        length of the measured window
+ * @param published      ticks the producer published in the window
+ * @param received       ticks the consumer received in the window, from its {@code <transport>.messages.received}
+ *                       counter rather than the histogram, whose count includes coordinated omission corrections
+ * @param percentiles    the consumer's {@code LatencyRecorder} percentiles over the window, in nanoseconds
+ * @param missing        ticks the consumer's sequence check found missing in the window
+ * @param allocatedBytes bytes allocated by the whole JVM in the window, brokers included
+ */
+record RunResult(Transport transport, double seconds, long published, long received, Map<String, Long> percentiles,
+                 long missing, long allocatedBytes) {
+}
@@ -0,0 +1,66 @@
+package eu.stefanangelov.jprime2025.harness;
+
+import eu.stefanangelov.jprime2025.harness.broker.AeronMediaDriver;
+import eu.stefanangelov.jprime2025.harness.broker.EmbeddedBroker;
+import eu.stefanangelov.jprime2025.harness.broker.KafkaBroker;
+import eu.stefanangelov.jprime2025.harness.broker.NatsServer;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The pipelines the harness compares: the producer and consumer application of each transport and the broker they
+ * run against.
+ */
+enum Transport {
+
+    AERON(eu.stefanangelov.jprime2025.aeron.websocket.BinanceWebsocketServiceApplication.class,
+            eu.stefanangelov.jprime2025.aeron.latency.LatencyMeasurementServiceApplication.class) {
+        @Override
+        EmbeddedBroker startBroker(Map<String, String> properties) {
+            return new AeronMediaDriver(properties.getOrDefault("AERON_THREADING_MODE", "DEDICATED"));
+        }
+    },
+    NATS(eu.stefanangelov.jprime2025.nats.websocket.BinanceWebsocketServiceApplication.class,
+            eu.stefanangelov.jprime2025.nats.latency.LatencyMeasurementServiceApplication.class) {
+        @Override
+        EmbeddedBroker startBroker(Map<String, String> properties) throws Exception {
+            return new NatsServer();
+        }
+    },
+    KAFKA(eu.stefanangelov.jprime2025.kafka.websocket.BinanceWebsocketServiceApplication.class,
+            eu.stefanangelov.jprime2025.kafka.latency.LatencyMeasurementServiceApplication.class) {
+        @Override
+        EmbeddedBroker startBroker(Map<String, String> properties) {
+            return new KafkaBroker();
+        }
+    };
+
+    private final Class<?> websocketApplication;
+    private final Class<?> latencyApplication;
+
+    Transport(Class<?> websocketApplication, Class<?> latencyApplication) {
+        this.websocketApplication = websocketApplication;
+        this.latencyApplication = latencyApplication;
+    }
+
+    Class<?> websocketApplication() {
+        return websocketApplication;
+    }
+
+    Class<?> latencyApplication() {
+        return latencyApplication;
+    }
+
+    /**
+     * @return the transport name as used by {@code tick.transport}
+     */
+    String id() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param properties the harness command line properties
+     */
+    abstract EmbeddedBroker startBroker(Map<String, String> properties) throws Exception;
+}
@@ -0,0 +1,191 @@
+package eu.stefanangelov.jprime2025.harness;
+
+import eu.stefanangelov.jprime2025.core.measurement.LatencyMeasurement;
+import eu.stefanangelov.jprime2025.core.measurement.SequenceTracker;
+import eu.stefanangelov.jprime2025.core.metrics.LatencyRecorder;
+import eu.stefanangelov.jprime2025.harness.broker.EmbeddedBroker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the Aeron, NATS and Kafka pipelines one after another in this JVM, each against its own embedded broker and
+ * under the same load, and writes a side by side report.
+ * <p>
+ * For every transport the real producer and consumer applications are started with their own
+ * {@code application.yml}, the producer fed by the synthetic generator ({@code binance.source=synthetic}) or a capture
+ * file ({@code binance.source=replay}). After {@code harness.warmup-s} the consumer's {@link LatencyRecorder} is reset
+ * and the run is measured for {@code harness.duration-s}, or until the producer stops publishing for two seconds,
+ * e.g. at the end of a replay. Both services use the monotonic clock, which is exact within one JVM.
+ * <p>
+ * Arguments are {@code key=value} pairs. {@code harness.*} keys configure the harness: {@code harness.transports}
+ * (default {@code aeron,nats,kafka}), {@code harness.warmup-s}, {@code harness.duration-s}, {@code harness.drain-s}
+ * and {@code harness.report}. All others are passed to both services of every transport, e.g.
+ * {@code binance.synthetic.rate=50000}.
+ */
+@Slf4j
+public final class TransportComparison {
+
+    private static final long IDLE_NS = TimeUnit.SECONDS.toNanos(2);
+
+    private final Map<String, String> serviceProperties = new LinkedHashMap<>();
+    private final List<Transport> transports;
+    private final long warmupS;
+    private final long durationS;
+    private final long drainS;
+    private final Path report;
+    private final Map<String, String> settings = new LinkedHashMap<>();
+
+    private TransportComparison(Map<String, String> arguments) {
+        serviceProperties.put("binance.source", "synthetic");
+        serviceProperties.put("latency.clock", "monotonic");
+        serviceProperties.put("latency.snapshot-interval-ms", "1000");
+        serviceProperties.put("latency.hlog-dir", "target/harness");
+        serviceProperties.put("tick-log.mode", "off");
+        serviceProperties.put("server.port", "0");
+        serviceProperties.put("spring.main.banner-mode", "off");
+        arguments.forEach((key, value) -> {
+            if (!key.startsWith("harness.")) {
+                serviceProperties.put(key, value);
+            }
+        });
+        this.transports = Arrays.stream(arguments.getOrDefault("harness.transports", "aeron,nats,kafka").split(","))
+                .map(name -> Transport.valueOf(name.trim().toUpperCase(Locale.ROOT)))
+                .toList();
+        this.warmupS = Long.parseLong(arguments.getOrDefault("harness.warmup-s", "10"));
+        this.durationS = Long.parseLong(arguments.getOrDefault("harness.duration-s", "30"));
+        this.drainS = Long.parseLong(arguments.getOrDefault("harness.drain-s", "2"));
+        this.report = Path.of(arguments.getOrDefault("harness.report", "target/harness/report.md"));
+        settings.put("harness.warmup-s", Long.toString(warmupS));
+        settings.put("harness.duration-s", Long.toString(durationS));
+        settings.putAll(serviceProperties);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> arguments = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 1) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            arguments.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        new TransportComparison(arguments).run();
+    }
+
+    private void run() throws Exception {
+        List<RunResult> results = new ArrayList<>();
+        for (Transport transport : transports) {
+            results.add(measure(transport));
+            // Start every transport from a collected heap
+            System.gc();
+        }
+        String rendered = ComparisonReport.render(results, settings);
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        Files.writeString(report, rendered);
+        log.info("Report written to {}\n{}", report.toAbsolutePath(), rendered);
+    }
+
+    private RunResult measure(Transport transport) throws Exception {
+        log.info("Measuring {}", transport.id());
+        try (EmbeddedBroker broker = transport.startBroker(serviceProperties)) {
+            Map<String, String> properties = new LinkedHashMap<>(broker.properties());
+            properties.put("tick.transport", transport.id());
+            properties.putAll(serviceProperties);
+            try (ConfigurableApplicationContext latency = start(transport.latencyApplication(), properties)) {
+                LatencyRecorder latencyRecorder = latency.getBean(LatencyRecorder.class);
+                MeterRegistry latencyMeterRegistry = latency.getBean(MeterRegistry.class);
+                String receivedCounter = transport.id() + ".messages.received";
+                SequenceTracker sequenceTracker = latency.getBean(LatencyMeasurement.class).sequenceTracker();
+                long startNs;
+                long startMissing;
+                long startReceived;
+                long published;
+                long allocatedBytes;
+                try (ConfigurableApplicationContext websocket = start(transport.websocketApplication(),
+                        properties)) {
+                    MeterRegistry meterRegistry = websocket.getBean(MeterRegistry.class);
+                    String publishedCounter = transport.id() + ".messages.published";
+                    TimeUnit.SECONDS.sleep(warmupS);
+
+                    latencyRecorder.reset();
+                    startMissing = sequenceTracker.missing();
+                    startReceived = count(latencyMeterRegistry, receivedCounter);
+                    startNs = System.nanoTime();
+                    long startPublished = count(meterRegistry, publishedCounter);
+                    long startAllocated = allocatedBytes();
+                    awaitEnd(meterRegistry, publishedCounter, startNs);
+                    published = count(meterRegistry, publishedCounter) - startPublished;
+                    allocatedBytes = allocatedBytes() - startAllocated;
+                }
+                double seconds = (System.nanoTime() - startNs) / 1e9;
+                // Let ticks in flight arrive before the consumer takes its final snapshot on close
+                TimeUnit.SECONDS.sleep(drainS);
+                long missing = sequenceTracker.missing() - startMissing;
+                long received = count(latencyMeterRegistry, receivedCounter) - startReceived;
+                latency.close();
+                return new RunResult(transport, seconds, published, received, latencyRecorder.cumulativePercentiles(),
+                        missing, allocatedBytes);
+            }
+        }
+    }
+
+    /**
+     * Start a service with its own {@code application.yml}. All modules are on one classpath here, so the file is
+     * located through the jar or directory the application class was loaded from.
+     */
+    private static ConfigurableApplicationContext start(Class<?> application, Map<String, String> properties) {
+        String location = application.getProtectionDomain().getCodeSource().getLocation().toString();
+        String config = location.endsWith(".jar") ? "jar:" + location + "!/application.yml"
+                : location + "application.yml";
+        List<String> args = new ArrayList<>();
+        args.add("--spring.config.location=optional:" + config);
+        // Command line arguments take precedence over the service's application.yml
+        properties.forEach((key, value) -> args.add("--" + key + "=" + value));
+        return new SpringApplicationBuilder(application).run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Wait for the measured window to pass, or for the producer to stop publishing.
+     */
+    private void awaitEnd(MeterRegistry meterRegistry, String counter, long startNs) throws InterruptedException {
+        long endNs = startNs + TimeUnit.SECONDS.toNanos(durationS);
+        long lastCount = count(meterRegistry, counter);
+        long lastChangeNs = startNs;
+        while (System.nanoTime() < endNs) {
+            TimeUnit.MILLISECONDS.sleep(500);
+            long count = count(meterRegistry, counter);
+            if (count != lastCount) {
+                lastCount = count;
+                lastChangeNs = System.nanoTime();
+            } else if (System.nanoTime() - lastChangeNs > IDLE_NS) {
+                log.info("Producer idle, ending the run early");
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sum a counter over all its tags, the Aeron consumer counts received messages per shard.
+     */
+    private static long count(MeterRegistry meterRegistry, String counter) {
+        return (long) meterRegistry.find(counter).counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getTotalThreadAllocatedBytes();
+    }
+}
@@ -0,0 +1,45 @@
+package eu.stefanangelov.jprime2025.harness.broker;
+
+import io.aeron.driver.MediaDriver;
+import io.aeron.driver.ThreadingMode;
+import org.agrona.concurrent.BusySpinIdleStrategy;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One media driver shared by the Aeron producer and consumer, which both connect to it as an external driver. The
+ * services' default channels still go over UDP on the loopback interface.
+ */
+public class AeronMediaDriver implements EmbeddedBroker {
+
+    private final MediaDriver mediaDriver;
+
+    /**
+     * @param threadingMode {@code DEDICATED}, {@code SHARED_NETWORK} or {@code SHARED}, the driver agents busy spin
+     */
+    public AeronMediaDriver(String threadingMode) {
+        this.mediaDriver = MediaDriver.launchEmbedded(new MediaDriver.Context()
+                .dirDeleteOnStart(true)
+                .dirDeleteOnShutdown(true)
+                .spiesSimulateConnection(true)
+                .threadingMode(ThreadingMode.valueOf(threadingMode.toUpperCase(Locale.ROOT)))
+                .conductorIdleStrategy(new BusySpinIdleStrategy())
+                .senderIdleStrategy(new BusySpinIdleStrategy())
+                .receiverIdleStrategy(new BusySpinIdleStrategy())
+                .sharedNetworkIdleStrategy(new BusySpinIdleStrategy())
+                .sharedIdleStrategy(new BusySpinIdleStrategy()));
+    }
+
+    @Override
+    public Map<String, String> properties() {
+        return Map.of(
+                "AERON_MEDIA_DRIVER", "external",
+                "AERON_DIR", mediaDriver.aeronDirectoryName());
+    }
+
+    @Override
+    public void close() {
+        mediaDriver.close();
+    }
+}
@@ -0,0 +1,17 @@
+package eu.stefanangelov.jprime2025.harness.broker;
+
+import java.util.Map;
+
+/**
+ * Infrastructure a transport needs, started inside the harness JVM for one run.
+ */
+public interface EmbeddedBroker extends AutoCloseable {
+
+    /**
+     * @return the properties that point both services of the transport at this broker
+     */
+    Map<String, String> properties();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,29 @@
+package eu.stefanangelov.jprime2025.harness.broker;
+
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.util.Map;
+
+/**
+ * A single KRaft Kafka broker on a free port. The producer service creates the {@code book-ticker} topic itself,
+ * with the partition count and timestamp type it is configured with.
+ */
+public class KafkaBroker implements EmbeddedBroker {
+
+    private final EmbeddedKafkaKraftBroker broker;
+
+    public KafkaBroker() {
+        this.broker = new EmbeddedKafkaKraftBroker(1, 1);
+        broker.afterPropertiesSet();
+    }
+
+    @Override
+    public Map<String, String> properties() {
+        return Map.of("spring.kafka.bootstrap-servers", broker.getBrokersAsString());
+    }
+
+    @Override
+    public void close() {
+        broker.destroy();
+    }
+}
@@ -0,0 +1,34 @@
+package eu.stefanangelov.jprime2025.harness.broker;
+
+import nats.io.NatsServerRunner;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * A {@code nats-server} on a free port, with JetStream so the JetStream modes can be compared too. There is no
+ * embeddable NATS server for the JVM, so this starts the binary found on the {@code PATH}, or at
+ * {@code NATS_SERVER_PATH}, as a child process.
+ */
+public class NatsServer implements EmbeddedBroker {
+
+    private final NatsServerRunner runner;
+
+    public NatsServer() throws IOException {
+        this.runner = new NatsServerRunner(false, true);
+    }
+
+    @Override
+    public Map<String, String> properties() {
+        return Map.of("nats.url", runner.getURI());
+    }
+
+    @Override
+    public void close() {
+        try {
+            runner.close();
+        } catch (Exception e) {
+            throw new IllegalStateException("Error stopping nats-server", e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package eu.stefanangelov.jprime2025.kafka.latency.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.stefanangelov.jprime2025.core.codec.FixedPoint;
+import eu.stefanangelov.jprime2025.core.transport.kafka.BookTickerHeaders;
+import eu.stefanangelov.jprime2025.core.transport.kafka.BookTickerSerializer;
+import eu.stefanangelov.jprime2025.kafka.websocket.model.BookTicker;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Reads book tickers written by the websocket service in either value format: the binary layout of the
+ * {@link BookTickerSerializer}, recognised by the leading {@link BookTickerSerializer#MAGIC} byte, or JSON, which
+ * always starts with {@code '{'}. Scaled prices are turned back into the plain decimal strings Binance sends. The
+ * timestamp is taken from the {@link BookTickerHeaders#SEND_TIMESTAMP} header when present; records without it keep
+ * the timestamp of a JSON value, which older producers still write.
+ */
+public class BookTickerDeserializer implements Deserializer<BookTicker> {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public BookTicker deserialize(String topic, Headers headers, byte[] data) {
+        BookTicker bookTicker = deserialize(topic, data);
+        long sentAt = BookTickerHeaders.sendTimestamp(headers);
+        if (bookTicker != null && sentAt != Long.MIN_VALUE) {
+            bookTicker.setTimestamp(sentAt);
+        }
+        return bookTicker;
+    }
+
+    @Override
+    public BookTicker deserialize(String topic, byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        if (data[0] != BookTickerSerializer.MAGIC) {
+            try {
+                return objectMapper.readValue(data, BookTicker.class);
+            } catch (IOException e) {
+                throw new SerializationException("Invalid JSON book ticker on " + topic, e);
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data, 1, data.length - 1);
+        BookTicker bookTicker = new BookTicker();
+        bookTicker.setBidPrice(decimal(buffer.getLong()));
+        bookTicker.setBidQty(decimal(buffer.getLong()));
+        bookTicker.setAskPrice(decimal(buffer.getLong()));
+        bookTicker.setAskQty(decimal(buffer.getLong()));
+        int length = buffer.get() & 0xFF;
+        bookTicker.setSymbol(new String(data, buffer.position(), length, US_ASCII));
+        return bookTicker;
+    }
+
+    private static String decimal(long scaled) {
+        return BigDecimal.valueOf(scaled, FixedPoint.DECIMALS).toPlainString();
+    }
+}
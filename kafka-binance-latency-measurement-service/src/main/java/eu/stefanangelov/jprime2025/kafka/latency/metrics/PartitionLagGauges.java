@@ -0,0 +1,62 @@
+package eu.stefanangelov.jprime2025.kafka.latency.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-partition consumer lag as {@code kafka.consumer.partition.lag} gauges tagged with topic and partition.
+ * <p>
+ * Consuming threads call {@link #update(Consumer)} after handling a poll. The lag comes from
+ * {@link Consumer#currentLag(TopicPartition)}, which reads the end offsets the consumer already received with its
+ * fetches and needs no broker round trip. Updates are throttled to {@code kafka.consumer.lag-interval-ms} per
+ * consuming thread, each of which owns one consumer and its assigned partitions, so calling this for every record is
+ * cheap.
+ */
+@Component
+public class PartitionLagGauges {
+
+    private final MeterRegistry meterRegistry;
+    private final long intervalNs;
+    private final Map<TopicPartition, AtomicLong> lags = new ConcurrentHashMap<>();
+    private final ThreadLocal<long[]> lastUpdateNs = ThreadLocal.withInitial(() -> new long[]{Long.MIN_VALUE});
+
+    public PartitionLagGauges(MeterRegistry meterRegistry,
+                              @Value("${kafka.consumer.lag-interval-ms:1000}") long intervalMs) {
+        this.meterRegistry = meterRegistry;
+        this.intervalNs = intervalMs * 1_000_000L;
+    }
+
+    public void update(Consumer<?, ?> consumer) {
+        long now = System.nanoTime();
+        long[] last = lastUpdateNs.get();
+        if (last[0] != Long.MIN_VALUE && now - last[0] < intervalNs) {
+            return;
+        }
+        last[0] = now;
+        for (TopicPartition partition : consumer.assignment()) {
+            OptionalLong lag = consumer.currentLag(partition);
+            if (lag.isPresent()) {
+                lags.computeIfAbsent(partition, this::register).set(lag.getAsLong());
+            }
+        }
+    }
+
+    private AtomicLong register(TopicPartition partition) {
+        AtomicLong lag = new AtomicLong();
+        Gauge.builder("kafka.consumer.partition.lag", lag, AtomicLong::get)
+                .description("Records between the consumer position and the end of the partition")
+                .tag("topic", partition.topic())
+                .tag("partition", Integer.toString(partition.partition()))
+                .register(meterRegistry);
+        return lag;
+    }
+}
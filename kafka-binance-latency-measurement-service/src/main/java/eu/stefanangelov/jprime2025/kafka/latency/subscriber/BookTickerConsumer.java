@@ -1,42 +1,172 @@
 package eu.stefanangelov.jprime2025.kafka.latency.subscriber;
 
+import eu.stefanangelov.jprime2025.core.spi.TickHandler;
+import eu.stefanangelov.jprime2025.core.spi.TickSubscriber;
+import eu.stefanangelov.jprime2025.core.transport.kafka.BookTickerHeaders;
+import eu.stefanangelov.jprime2025.kafka.latency.codec.BookTickerDeserializer;
+import eu.stefanangelov.jprime2025.kafka.latency.metrics.PartitionLagGauges;
 import eu.stefanangelov.jprime2025.kafka.websocket.model.BookTicker;
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.record.TimestampType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Kafka {@link TickSubscriber}: consumes book tickers from the {@code book-ticker} topic.
+ * <p>
+ * {@code kafka.consumer.mode} picks how records arrive. Only the matching listener is started.
+ * <ul>
+ *     <li>{@code record}: one listener call per record</li>
+ *     <li>{@code batch}: one listener call per poll with the whole {@code List<ConsumerRecord>}</li>
+ *     <li>{@code raw}: a plain {@code KafkaConsumer} busy-poll loop in {@link RawBookTickerConsumer}, bypassing the
+ *     listener container</li>
+ * </ul>
+ * The container modes run {@code kafka.consumer.concurrency} consumers, useful up to one per partition.
+ * {@code kafka.latency} is tagged with the mode, so the modes can be compared to tell listener container overhead
+ * apart from broker delivery.
+ * <p>
+ * The send timestamp arrives in the {@link BookTickerHeaders#SEND_TIMESTAMP} header, so the value is consumed as raw
+ * bytes and only decoded when {@code kafka.consumer.decode-value} is set. With an epoch {@code latency.clock} and a
+ * topic stamped with {@code LogAppendTime}, the end to end latency is further split into
+ * {@code kafka.latency.produce} (send to broker append) and {@code kafka.latency.deliver} (append to receive). The
+ * broker timestamp only has millisecond resolution, so the legs are coarser than {@code kafka.latency}.
+ */
 @Slf4j
 @Component
-public class BookTickerConsumer {
+public class BookTickerConsumer implements TickSubscriber {
 
-    private final MeterRegistry meterRegistry;
+    public static final String TOPIC = "book-ticker";
+
+    private final PartitionLagGauges lagGauges;
+    private final RawBookTickerConsumer rawConsumer;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final BookTickerDeserializer deserializer = new BookTickerDeserializer();
+    private final boolean echoEnabled;
+    private final boolean decodeValue;
+    private final boolean legsEnabled;
     private final Timer latencyTimer;
+    private final Timer produceTimer;
+    private final Timer deliverTimer;
+    private final Counter messagesReceived;
+    private final Counter errors;
+    private TickHandler tickHandler;
 
-    public BookTickerConsumer(MeterRegistry meterRegistry) {
-        this.meterRegistry = meterRegistry;
+    public BookTickerConsumer(MeterRegistry meterRegistry, PartitionLagGauges lagGauges,
+                              RawBookTickerConsumer rawConsumer,
+                              KafkaTemplate<String, byte[]> kafkaTemplate,
+                              @Value("${latency.echo.enabled:false}") boolean echoEnabled,
+                              @Value("${kafka.consumer.mode:record}") String mode,
+                              @Value("${kafka.consumer.decode-value:false}") boolean decodeValue,
+                              @Value("${latency.clock:epoch}") String clockType) {
+        this.lagGauges = lagGauges;
+        this.rawConsumer = rawConsumer;
+        this.kafkaTemplate = kafkaTemplate;
+        this.echoEnabled = echoEnabled;
+        this.decodeValue = decodeValue;
+        // Broker append times are epoch millis, only comparable with an epoch send timestamp
+        this.legsEnabled = "epoch".equals(clockType);
         // Initialize latency histogram
         this.latencyTimer = Timer.builder("kafka.latency")
                 .description("Latency of messages received via Kafka")
+                .tag("mode", mode)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.produceTimer = Timer.builder("kafka.latency.produce")
+                .description("Send to broker log append, millisecond resolution")
+                .tag("mode", mode)
                 .publishPercentiles(0.5, 0.95, 0.99)
                 .register(meterRegistry);
+        this.deliverTimer = Timer.builder("kafka.latency.deliver")
+                .description("Broker log append to receive, millisecond resolution")
+                .tag("mode", mode)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.messagesReceived = meterRegistry.counter("kafka.messages.received");
+        this.errors = meterRegistry.counter("kafka.errors");
+    }
+
+    @Override
+    public String transport() {
+        return "kafka";
+    }
+
+    /**
+     * Keep the handler for the listener containers, which Spring starts once the context is refreshed, and start the
+     * raw poll loop when that is the configured mode.
+     */
+    @Override
+    public void start(TickHandler tickHandler) {
+        this.tickHandler = tickHandler;
+        rawConsumer.start(this::process);
+    }
+
+    @KafkaListener(id = "book-ticker-record", topics = TOPIC, groupId = "latency-measurement-group",
+            concurrency = "${kafka.consumer.concurrency:1}",
+            autoStartup = "#{'${kafka.consumer.mode:record}' == 'record'}")
+    public void consume(ConsumerRecord<String, byte[]> record, Consumer<?, ?> consumer) {
+        process(record);
+        lagGauges.update(consumer);
+    }
+
+    @KafkaListener(id = "book-ticker-batch", topics = TOPIC, groupId = "latency-measurement-group", batch = "true",
+            concurrency = "${kafka.consumer.concurrency:1}",
+            autoStartup = "#{'${kafka.consumer.mode:record}' == 'batch'}")
+    public void consumeBatch(List<ConsumerRecord<String, byte[]>> records, Consumer<?, ?> consumer) {
+        for (int i = 0, size = records.size(); i < size; i++) {
+            process(records.get(i));
+        }
+        lagGauges.update(consumer);
     }
 
-    @KafkaListener(topics = "book-ticker", groupId = "latency-measurement-group")
-    public void consume(BookTicker bookTicker) {
+    /**
+     * Record the latency of one book ticker. Called concurrently by all consumer threads.
+     */
+    void process(ConsumerRecord<String, byte[]> record) {
         try {
-            meterRegistry.counter("kafka.messages.received").increment();
-            long now = System.nanoTime();
-            long latencyNs = now - bookTicker.getTimestamp();
-            double latencyMs = latencyNs / 1_000_000.0;
-            // Record latency in milliseconds
-            latencyTimer.record((Duration.ofNanos(latencyNs)));
-            log.info("Received book ticker: {}, Latency: {} ms", bookTicker.getSymbol(), latencyMs);
+            messagesReceived.increment();
+            long sentAt = BookTickerHeaders.sendTimestamp(record.headers());
+            long updateId = BookTickerHeaders.updateId(record.headers());
+            String symbol = record.key();
+            if (sentAt == Long.MIN_VALUE || decodeValue) {
+                // Records from producers without the headers still carry the timestamp in their JSON value
+                BookTicker bookTicker = deserializer.deserialize(record.topic(), record.headers(), record.value());
+                if (sentAt == Long.MIN_VALUE) {
+                    sentAt = bookTicker.getTimestamp();
+                    updateId = bookTicker.getUpdateId();
+                }
+                symbol = bookTicker.getSymbol();
+            }
+            long latencyNs = tickHandler.onTick(symbol, updateId, BookTickerHeaders.sequence(record.headers()),
+                    sentAt);
+            latencyTimer.record(latencyNs, TimeUnit.NANOSECONDS);
+            if (echoEnabled) {
+                // Reflect the send timestamp so the producer can measure round trip time on its own clock, after
+                // measuring so the send does not count towards the latency
+                Header header = record.headers().lastHeader(BookTickerHeaders.SEND_TIMESTAMP);
+                kafkaTemplate.send(new ProducerRecord<>("book-ticker-echo", symbol, header != null
+                        ? header.value() : ByteBuffer.allocate(Long.BYTES).putLong(sentAt).array()));
+            }
+            if (legsEnabled && record.timestampType() == TimestampType.LOG_APPEND_TIME) {
+                long now = sentAt + latencyNs;
+                long appendedAt = TimeUnit.MILLISECONDS.toNanos(record.timestamp());
+                produceTimer.record(Math.max(0, appendedAt - sentAt), TimeUnit.NANOSECONDS);
+                deliverTimer.record(Math.max(0, now - appendedAt), TimeUnit.NANOSECONDS);
+            }
         } catch (Exception e) {
-            meterRegistry.counter("kafka.errors").increment();
+            errors.increment();
             log.error("Error processing message", e);
         }
     }
@@ -0,0 +1,101 @@
+package eu.stefanangelov.jprime2025.kafka.latency.subscriber;
+
+import eu.stefanangelov.jprime2025.kafka.latency.metrics.PartitionLagGauges;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.kafka.KafkaClientMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.errors.WakeupException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Consumes {@code book-ticker} with a plain {@link KafkaConsumer} on a dedicated thread when
+ * {@code kafka.consumer.mode=raw}, without a listener container in between.
+ * <p>
+ * With the default {@code kafka.consumer.raw.poll-timeout-ms} of {@code 0} the thread busy polls, trading a core
+ * for the lowest delivery latency. The consumer uses the {@code spring.kafka.consumer} settings and its client
+ * metrics, {@code fetch-latency} and {@code records-lag} among them, are bound to Micrometer.
+ */
+@Slf4j
+@Component
+public class RawBookTickerConsumer {
+
+    private final PartitionLagGauges lagGauges;
+    private final KafkaProperties kafkaProperties;
+    private final ObjectProvider<SslBundles> sslBundles;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration pollTimeout;
+    private KafkaConsumer<String, byte[]> consumer;
+    private KafkaClientMetrics clientMetrics;
+    private Consumer<ConsumerRecord<String, byte[]>> recordHandler;
+    private Thread pollingThread;
+
+    public RawBookTickerConsumer(PartitionLagGauges lagGauges, KafkaProperties kafkaProperties,
+                                 ObjectProvider<SslBundles> sslBundles, MeterRegistry meterRegistry,
+                                 @Value("${kafka.consumer.mode:record}") String mode,
+                                 @Value("${kafka.consumer.raw.poll-timeout-ms:0}") long pollTimeoutMs) {
+        this.lagGauges = lagGauges;
+        this.kafkaProperties = kafkaProperties;
+        this.sslBundles = sslBundles;
+        this.meterRegistry = meterRegistry;
+        this.enabled = "raw".equals(mode);
+        this.pollTimeout = Duration.ofMillis(pollTimeoutMs);
+    }
+
+    /**
+     * Start the poll loop, unless another consumer mode is configured.
+     *
+     * @param recordHandler called on the polling thread for every record
+     */
+    public void start(Consumer<ConsumerRecord<String, byte[]>> recordHandler) {
+        if (!enabled) {
+            return;
+        }
+        this.recordHandler = recordHandler;
+        consumer = new KafkaConsumer<>(kafkaProperties.buildConsumerProperties(sslBundles.getIfAvailable()));
+        clientMetrics = new KafkaClientMetrics(consumer);
+        clientMetrics.bindTo(meterRegistry);
+        consumer.subscribe(List.of(BookTickerConsumer.TOPIC));
+        pollingThread = new Thread(this::poll, "kafka-raw-consumer");
+        pollingThread.start();
+    }
+
+    private void poll() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                ConsumerRecords<String, byte[]> records = consumer.poll(pollTimeout);
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    recordHandler.accept(record);
+                }
+                lagGauges.update(consumer);
+            }
+        } catch (WakeupException e) {
+            // Woken up by close()
+        } catch (Exception e) {
+            log.error("Raw Kafka consumer stopped", e);
+        } finally {
+            consumer.close();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (pollingThread != null) {
+            consumer.wakeup();
+            pollingThread.join(5000);
+            clientMetrics.close();
+        }
+    }
+}
@@ -18,4 +18,6 @@ public class BookTicker {
     @JsonProperty("A")
     private String askQty;
     private long timestamp; // Added for latency measurement
+    @JsonProperty("u")
+    private long updateId;
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+package eu.stefanangelov.jprime2025.kafka.latency.codec;
+
+import eu.stefanangelov.jprime2025.core.model.MutableBookTicker;
+import eu.stefanangelov.jprime2025.core.parser.BookTickerParser;
+import eu.stefanangelov.jprime2025.core.transport.kafka.BookTickerHeaders;
+import eu.stefanangelov.jprime2025.core.transport.kafka.BookTickerSerializer;
+import eu.stefanangelov.jprime2025.kafka.websocket.codec.BookTickerJsonSerializer;
+import eu.stefanangelov.jprime2025.kafka.websocket.model.BookTicker;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookTickerDeserializerTest {
+
+    private static final String TOPIC = "book-ticker";
+
+    private final BookTickerDeserializer deserializer = new BookTickerDeserializer();
+    private final MutableBookTicker ticker = new MutableBookTicker();
+
+    BookTickerDeserializerTest() {
+        new BookTickerParser().parse("{\"u\":400900217,\"s\":\"BNBUSDT\",\"b\":\"25.35190000\",\"B\":\"31.21000000\","
+                + "\"a\":\"25.36520000\",\"A\":\"0.00000001\"}", ticker);
+    }
+
+    @Test
+    void readsBinaryValues() {
+        byte[] data = new BookTickerSerializer().serialize(TOPIC, ticker);
+
+        assertEquals(BookTickerSerializer.MAGIC, data[0]);
+        assertBnbTicker(deserializer.deserialize(TOPIC, data));
+    }
+
+    @Test
+    void readsJsonValues() {
+        byte[] data = new BookTickerJsonSerializer().serialize(TOPIC, ticker);
+
+        assertEquals('{', data[0]);
+        assertBnbTicker(deserializer.deserialize(TOPIC, data));
+    }
+
+    @Test
+    void takesTheTimestampFromTheHeader() {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(BookTickerHeaders.SEND_TIMESTAMP, BookTickerHeaders.encodeLong(1_700_000_000_123_456_789L));
+
+        for (byte[] data : new byte[][]{new BookTickerSerializer().serialize(TOPIC, ticker),
+                new BookTickerJsonSerializer().serialize(TOPIC, ticker)}) {
+            assertEquals(1_700_000_000_123_456_789L, deserializer.deserialize(TOPIC, headers, data).getTimestamp());
+        }
+    }
+
+    @Test
+    void keepsTheJsonTimestampWithoutHeader() {
+        byte[] data = "{\"s\":\"BNBUSDT\",\"b\":\"1\",\"B\":\"1\",\"a\":\"1\",\"A\":\"1\",\"timestamp\":42}"
+                .getBytes(US_ASCII);
+
+        assertEquals(42L, deserializer.deserialize(TOPIC, new RecordHeaders(), data).getTimestamp());
+    }
+
+    @Test
+    void readsLongestSymbol() {
+        String symbol = "S".repeat(255);
+        ticker.setSymbol(symbol, 0, symbol.length());
+
+        BookTicker bookTicker = deserializer.deserialize(TOPIC, new BookTickerSerializer().serialize(TOPIC, ticker));
+        assertEquals(symbol, bookTicker.getSymbol());
+    }
+
+    @Test
+    void returnsNullForEmptyValues() {
+        assertNull(deserializer.deserialize(TOPIC, (byte[]) null));
+        assertNull(deserializer.deserialize(TOPIC, new byte[0]));
+    }
+
+    @Test
+    void rejectsValuesThatAreNeitherFormat() {
+        byte[] data = "not json".getBytes(US_ASCII);
+
+        assertThrows(SerializationException.class, () -> deserializer.deserialize(TOPIC, data));
+    }
+
+    private static void assertBnbTicker(BookTicker bookTicker) {
+        assertEquals("BNBUSDT", bookTicker.getSymbol());
+        assertEquals("25.35190000", bookTicker.getBidPrice());
+        assertEquals("31.21000000", bookTicker.getBidQty());
+        assertEquals("25.36520000", bookTicker.getAskPrice());
+        assertEquals("0.00000001", bookTicker.getAskQty());
+    }
+}
@@ -1,9 +1,12 @@
 package eu.stefanangelov.jprime2025.kafka.websocket;
 
+import eu.stefanangelov.jprime2025.core.ingest.IngestConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
+@Import(IngestConfiguration.class)
 public class BinanceWebsocketServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(BinanceWebsocketServiceApplication.class, args);
@@ -0,0 +1,20 @@
+package eu.stefanangelov.jprime2025.kafka.websocket.codec;
+
+import eu.stefanangelov.jprime2025.core.model.MutableBookTicker;
+import eu.stefanangelov.jprime2025.core.transport.kafka.BookTickerSerializer;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * JSON encoding of a {@link MutableBookTicker} through {@link BookTickerJsonWriter}, kept to compare against
+ * {@link BookTickerSerializer}. The writer's scratch buffer is not thread safe, so serialization is synchronized;
+ * a single producer thread never contends on it.
+ */
+public class BookTickerJsonSerializer implements Serializer<MutableBookTicker> {
+
+    private final BookTickerJsonWriter jsonWriter = new BookTickerJsonWriter();
+
+    @Override
+    public synchronized byte[] serialize(String topic, MutableBookTicker ticker) {
+        return ticker == null ? null : jsonWriter.write(ticker);
+    }
+}
@@ -0,0 +1,45 @@
+package eu.stefanangelov.jprime2025.kafka.websocket.codec;
+
+import eu.stefanangelov.jprime2025.core.codec.FixedPoint;
+import eu.stefanangelov.jprime2025.core.model.MutableBookTicker;
+
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Renders a {@link MutableBookTicker} as the JSON document the latency measurement service reads into its
+ * {@code BookTicker} model. The send timestamp is not included, it travels in a record header. Only the returned
+ * payload is allocated, the transport keeps a reference to it until it has been written out. Not thread safe, it is
+ * owned by the publishing thread.
+ */
+public final class BookTickerJsonWriter {
+
+    private static final byte[] SYMBOL = "{\"s\":\"".getBytes(US_ASCII);
+    private static final byte[] BID_PRICE = "\",\"b\":\"".getBytes(US_ASCII);
+    private static final byte[] BID_QTY = "\",\"B\":\"".getBytes(US_ASCII);
+    private static final byte[] ASK_PRICE = "\",\"a\":\"".getBytes(US_ASCII);
+    private static final byte[] ASK_QTY = "\",\"A\":\"".getBytes(US_ASCII);
+
+    private final byte[] scratch = new byte[256];
+
+    public byte[] write(MutableBookTicker ticker) {
+        int position = put(SYMBOL, 0);
+        CharSequence symbol = ticker.getSymbol();
+        for (int i = 0, length = symbol.length(); i < length; i++) {
+            scratch[position++] = (byte) symbol.charAt(i);
+        }
+        position = FixedPoint.format(ticker.getBidPrice(), scratch, put(BID_PRICE, position));
+        position = FixedPoint.format(ticker.getBidQty(), scratch, put(BID_QTY, position));
+        position = FixedPoint.format(ticker.getAskPrice(), scratch, put(ASK_PRICE, position));
+        position = FixedPoint.format(ticker.getAskQty(), scratch, put(ASK_QTY, position));
+        scratch[position++] = '"';
+        scratch[position++] = '}';
+        return Arrays.copyOf(scratch, position);
+    }
+
+    private int put(byte[] bytes, int position) {
+        System.arraycopy(bytes, 0, scratch, position, bytes.length);
+        return position + bytes.length;
+    }
+}
@@ -0,0 +1,125 @@
+package eu.stefanangelov.jprime2025.kafka.websocket.config;
+
+import eu.stefanangelov.jprime2025.core.model.MutableBookTicker;
+import eu.stefanangelov.jprime2025.core.transport.kafka.BookTickerSerializer;
+import eu.stefanangelov.jprime2025.kafka.websocket.codec.BookTickerJsonSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Book ticker producer with a named tuning profile selected by {@code kafka.producer.profile}.
+ * <ul>
+ *     <li>{@code low-latency}: send every record immediately, leader ack only, no compression</li>
+ *     <li>{@code balanced}: a few milliseconds of linger, lz4 and idempotent delivery with {@code acks=all}</li>
+ *     <li>{@code high-throughput}: long linger, large batches and zstd, durability as in {@code balanced}</li>
+ * </ul>
+ * Properties set under {@code spring.kafka.producer.properties} override the profile, except that an idempotent
+ * profile refuses {@code acks} below {@code all}. The producer's client metrics, {@code record-queue-time} and
+ * {@code request-latency} among them, are bridged to Micrometer as {@code kafka.producer.*} meters.
+ * <p>
+ * The {@code book-ticker} topic is created with {@code LogAppendTime} record timestamps by default, so the latency
+ * measurement service can split the latency into the producer to broker and broker to consumer legs.
+ */
+@Slf4j
+@Configuration
+public class KafkaProducerConfig {
+
+    private static final Map<String, Map<String, Object>> PROFILES = Map.of(
+            "low-latency", Map.of(
+                    ProducerConfig.LINGER_MS_CONFIG, 0,
+                    ProducerConfig.BATCH_SIZE_CONFIG, 16384,
+                    ProducerConfig.ACKS_CONFIG, "1",
+                    ProducerConfig.COMPRESSION_TYPE_CONFIG, "none",
+                    ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, false),
+            "balanced", Map.of(
+                    ProducerConfig.LINGER_MS_CONFIG, 5,
+                    ProducerConfig.BATCH_SIZE_CONFIG, 65536,
+                    ProducerConfig.ACKS_CONFIG, "all",
+                    ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4",
+                    ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true),
+            "high-throughput", Map.of(
+                    ProducerConfig.LINGER_MS_CONFIG, 20,
+                    ProducerConfig.BATCH_SIZE_CONFIG, 262144,
+                    ProducerConfig.ACKS_CONFIG, "all",
+                    ProducerConfig.COMPRESSION_TYPE_CONFIG, "zstd",
+                    ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+                    ProducerConfig.BUFFER_MEMORY_CONFIG, 67108864L));
+
+    @Bean
+    public ProducerFactory<String, MutableBookTicker> bookTickerProducerFactory(
+            KafkaProperties kafkaProperties,
+            ObjectProvider<SslBundles> sslBundles,
+            MeterRegistry meterRegistry,
+            @Value("${kafka.producer.profile:low-latency}") String profile,
+            @Value("${kafka.producer.value-format:binary}") String valueFormat) {
+        Map<String, Object> profileProperties = PROFILES.get(profile.toLowerCase(Locale.ROOT));
+        if (profileProperties == null) {
+            throw new IllegalArgumentException("Unknown Kafka producer profile: " + profile);
+        }
+        Map<String, Object> properties = new HashMap<>(profileProperties);
+        properties.putAll(kafkaProperties.buildProducerProperties(sslBundles.getIfAvailable()));
+        checkAcks(profile, properties);
+        log.info("Kafka producer profile {} with {} values: {}", profile, valueFormat, properties);
+
+        DefaultKafkaProducerFactory<String, MutableBookTicker> factory = new DefaultKafkaProducerFactory<>(
+                properties, new StringSerializer(), valueSerializer(valueFormat));
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
+    }
+
+    @Bean
+    public NewTopic bookTickerTopic(@Value("${kafka.topic.partitions:1}") int partitions,
+                                    @Value("${kafka.topic.timestamp-type:LogAppendTime}") String timestampType) {
+        return TopicBuilder.name("book-ticker")
+                .partitions(partitions)
+                .config(TopicConfig.MESSAGE_TIMESTAMP_TYPE_CONFIG, timestampType)
+                .build();
+    }
+
+    @Bean
+    public KafkaTemplate<String, MutableBookTicker> bookTickerKafkaTemplate(
+            ProducerFactory<String, MutableBookTicker> bookTickerProducerFactory) {
+        return new KafkaTemplate<>(bookTickerProducerFactory);
+    }
+
+    /**
+     * Fail at startup rather than in the producer when an override lowers {@code acks} below {@code all} for an
+     * idempotent profile, which the producer rejects.
+     */
+    private static void checkAcks(String profile, Map<String, Object> properties) {
+        Object idempotence = properties.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG);
+        String acks = String.valueOf(properties.get(ProducerConfig.ACKS_CONFIG));
+        if (Boolean.parseBoolean(String.valueOf(idempotence)) && !"all".equalsIgnoreCase(acks) && !"-1".equals(acks)) {
+            throw new IllegalArgumentException("Kafka producer profile " + profile
+                    + " is idempotent and needs acks=all, but spring.kafka.producer.properties sets acks=" + acks);
+        }
+    }
+
+    private static Serializer<MutableBookTicker> valueSerializer(String valueFormat) {
+        return switch (valueFormat.toLowerCase(Locale.ROOT)) {
+            case "binary" -> new BookTickerSerializer();
+            case "json" -> new BookTickerJsonSerializer();
+            default -> throw new IllegalArgumentException("Unknown Kafka value format: " + valueFormat);
+        };
+    }
+}
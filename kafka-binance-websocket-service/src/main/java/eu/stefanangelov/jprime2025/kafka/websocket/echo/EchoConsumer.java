@@ -0,0 +1,43 @@
+package eu.stefanangelov.jprime2025.kafka.websocket.echo;
+
+import eu.stefanangelov.jprime2025.core.clock.LatencyClock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures round trip time from the send timestamps reflected by the latency measurement service.
+ * Both ends of the measurement use this producer's clock, so no clock synchronisation is needed.
+ * Only started with {@code latency.echo.enabled}.
+ */
+@Component
+public class EchoConsumer {
+
+    private final LatencyClock clock;
+    private final Timer roundTripTimer;
+    private final Timer oneWayTimer;
+
+    public EchoConsumer(LatencyClock clock, MeterRegistry meterRegistry) {
+        this.clock = clock;
+        this.roundTripTimer = Timer.builder("kafka.echo.rtt")
+                .description("Round trip time of messages reflected by the latency measurement service")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.oneWayTimer = Timer.builder("kafka.echo.one-way")
+                .description("Half of the round trip time, a clock independent one-way latency estimate")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(topics = "book-ticker-echo", groupId = "binance-websocket-echo-group",
+            autoStartup = "${latency.echo.enabled:false}")
+    public void consume(byte[] echo) {
+        long roundTripNs = clock.nanos() - ByteBuffer.wrap(echo).getLong();
+        roundTripTimer.record(roundTripNs, TimeUnit.NANOSECONDS);
+        oneWayTimer.record(roundTripNs / 2, TimeUnit.NANOSECONDS);
+    }
+}
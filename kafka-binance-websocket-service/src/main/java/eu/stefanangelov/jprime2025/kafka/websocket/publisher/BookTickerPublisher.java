@@ -0,0 +1,39 @@
+package eu.stefanangelov.jprime2025.kafka.websocket.publisher;
+
+import eu.stefanangelov.jprime2025.core.model.MutableBookTicker;
+import eu.stefanangelov.jprime2025.core.spi.TickPublisher;
+import eu.stefanangelov.jprime2025.core.transport.kafka.BookTickerHeaders;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Kafka {@link TickPublisher}: produces book tickers to {@code book-ticker}, keyed by symbol so each symbol stays on
+ * one partition. The send timestamp, update id and sequence travel in {@link BookTickerHeaders}, so the consumer
+ * checks them without deserializing the value.
+ */
+@Component
+public class BookTickerPublisher implements TickPublisher {
+
+    private final KafkaTemplate<String, MutableBookTicker> kafkaTemplate;
+
+    public BookTickerPublisher(KafkaTemplate<String, MutableBookTicker> kafkaTemplate) {
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    @Override
+    public String transport() {
+        return "kafka";
+    }
+
+    @Override
+    public void publish(MutableBookTicker ticker, int symbolId, String symbol, long sentAtNs) {
+        ProducerRecord<String, MutableBookTicker> record = new ProducerRecord<>("book-ticker", symbol, ticker);
+        // Attach timestamp as a header, the consumer reads it without deserializing the value
+        record.headers().add(BookTickerHeaders.SEND_TIMESTAMP, BookTickerHeaders.encodeLong(sentAtNs))
+                .add(BookTickerHeaders.UPDATE_ID, BookTickerHeaders.encodeLong(ticker.getUpdateId()))
+                .add(BookTickerHeaders.SEQUENCE, BookTickerHeaders.encodeLong(ticker.getSequence()));
+        // The value is serialized before send returns, so the reused ticker may change afterwards
+        kafkaTemplate.send(record);
+    }
+}
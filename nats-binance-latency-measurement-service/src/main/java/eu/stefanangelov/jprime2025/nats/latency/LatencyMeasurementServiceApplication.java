@@ -1,9 +1,12 @@
 package eu.stefanangelov.jprime2025.nats.latency;
 
+import eu.stefanangelov.jprime2025.core.measurement.MeasurementConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
+@Import(MeasurementConfiguration.class)
 public class LatencyMeasurementServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(LatencyMeasurementServiceApplication.class, args);
@@ -0,0 +1,19 @@
+package eu.stefanangelov.jprime2025.nats.latency.config;
+
+import io.nats.client.api.DeliverPolicy;
+
+/**
+ * Settings of the JetStream consumer modes, bound from {@code nats.jetstream.*} by {@link NatsConfig}.
+ *
+ * @param stream         the stream name
+ * @param subject        the stream subject, also the consumer's filter subject
+ * @param storage        {@code memory} or {@code file}, used when this service creates the stream
+ * @param maxAgeSeconds  retention of the stream
+ * @param deliverPolicy  where a new consumer starts, {@code new} for live latency, {@code all} to replay the stream
+ * @param durable        durable name of the pull consumer
+ * @param batchSize      messages per pull request
+ * @param fetchMaxWaitMs how long a pull request waits for a full batch
+ */
+public record JetStreamSettings(String stream, String subject, String storage, long maxAgeSeconds,
+                                DeliverPolicy deliverPolicy, String durable, int batchSize, long fetchMaxWaitMs) {
+}
@@ -1,20 +1,92 @@
 package eu.stefanangelov.jprime2025.nats.latency.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.nats.client.Connection;
+import io.nats.client.Consumer;
+import io.nats.client.ErrorListener;
+import io.nats.client.Message;
 import io.nats.client.Nats;
 import io.nats.client.Options;
+import io.nats.client.api.DeliverPolicy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+/**
+ * NATS connection with the client buffers exposed for tuning, see the websocket service's {@code NatsConfig}.
+ * Values of {@code 0} keep the client defaults. {@code nats.no-echo} keeps this connection's own publishes
+ * from being delivered back to it.
+ */
+@Slf4j
 @Configuration
 public class NatsConfig {
 
     @Bean
-    public Connection natsConnection(@Value("${nats.url}") String natsUrl) throws Exception {
-        Options options = new Options.Builder()
+    public Connection natsConnection(@Value("${nats.url}") String natsUrl,
+                                     @Value("${nats.buffer-size:0}") int bufferSize,
+                                     @Value("${nats.reconnect-buffer-size:0}") long reconnectBufferSize,
+                                     @Value("${nats.max-outgoing-messages:0}") int maxOutgoingMessages,
+                                     @Value("${nats.discard-when-full:false}") boolean discardWhenFull,
+                                     @Value("${nats.no-echo:true}") boolean noEcho,
+                                     MeterRegistry meterRegistry) throws Exception {
+        Options.Builder builder = new Options.Builder()
                 .server(natsUrl)
-                .build();
-        return Nats.connect(options);
+                .errorListener(slowConsumerListener(meterRegistry));
+        if (bufferSize > 0) {
+            builder.bufferSize(bufferSize);
+        }
+        if (reconnectBufferSize != 0) {
+            builder.reconnectBufferSize(reconnectBufferSize);
+        }
+        if (maxOutgoingMessages > 0) {
+            builder.maxMessagesInOutgoingQueue(maxOutgoingMessages);
+        }
+        if (discardWhenFull) {
+            builder.discardMessagesWhenOutgoingQueueFull();
+        }
+        if (noEcho) {
+            builder.noEcho();
+        }
+        return Nats.connect(builder.build());
+    }
+
+    @Bean
+    public JetStreamSettings jetStreamSettings(@Value("${nats.jetstream.stream:BOOK_TICKER}") String stream,
+                                               @Value("${nats.jetstream.subject:book.ticker.*}") String subject,
+                                               @Value("${nats.jetstream.storage:memory}") String storage,
+                                               @Value("${nats.jetstream.max-age-s:3600}") long maxAgeSeconds,
+                                               @Value("${nats.jetstream.deliver-policy:new}") String deliverPolicy,
+                                               @Value("${nats.jetstream.durable:latency-measurement}") String durable,
+                                               @Value("${nats.jetstream.batch-size:256}") int batchSize,
+                                               @Value("${nats.jetstream.fetch-max-wait-ms:100}") long fetchMaxWaitMs) {
+        DeliverPolicy policy = DeliverPolicy.get(deliverPolicy);
+        if (policy == null) {
+            throw new IllegalArgumentException("Unknown JetStream deliver policy: " + deliverPolicy);
+        }
+        return new JetStreamSettings(stream, subject, storage, maxAgeSeconds, policy, durable, batchSize,
+                fetchMaxWaitMs);
+    }
+
+    /**
+     * Count slow consumer events and the messages dropped because a consumer exceeded its pending limits.
+     * The client reports a slow consumer once per episode, the discarded counter shows how bad the episode was.
+     */
+    private static ErrorListener slowConsumerListener(MeterRegistry meterRegistry) {
+        Counter slowConsumers = meterRegistry.counter("nats.slow-consumer.detected");
+        Counter discarded = meterRegistry.counter("nats.slow-consumer.discarded");
+        return new ErrorListener() {
+            @Override
+            public void slowConsumerDetected(Connection conn, Consumer consumer) {
+                slowConsumers.increment();
+                log.warn("Slow consumer detected, {} messages pending", consumer.getPendingMessageCount());
+            }
+
+            @Override
+            public void messageDiscarded(Connection conn, Message msg) {
+                discarded.increment();
+            }
+        };
     }
 }
@@ -1,68 +1,237 @@
 package eu.stefanangelov.jprime2025.nats.latency.consumer;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.stefanangelov.jprime2025.core.spi.TickHandler;
+import eu.stefanangelov.jprime2025.core.spi.TickSubscriber;
+import eu.stefanangelov.jprime2025.core.transport.nats.BookTickerStream;
+import eu.stefanangelov.jprime2025.nats.latency.config.JetStreamSettings;
 import eu.stefanangelov.jprime2025.nats.latency.model.BookTicker;
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import io.nats.client.Connection;
+import io.nats.client.Consumer;
+import io.nats.client.Dispatcher;
+import io.nats.client.JetStreamSubscription;
+import io.nats.client.Message;
+import io.nats.client.PullSubscribeOptions;
+import io.nats.client.PushSubscribeOptions;
 import io.nats.client.Subscription;
-import jakarta.annotation.PostConstruct;
+import io.nats.client.api.AckPolicy;
+import io.nats.client.api.ConsumerConfiguration;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * NATS {@link TickSubscriber}: receives book tickers published on {@code nats.consumer.subject}, by default every
+ * symbol under {@code book.ticker.>}, so pairs added on the producer at runtime are measured as well.
+ * <p>
+ * In {@code dispatcher} mode (the default) messages are pushed to a {@link Dispatcher} thread as soon as they arrive.
+ * The {@code sync} mode polls {@link Subscription#nextMessage} on a dedicated thread and is kept for comparison.
+ * Either way the client buffers at most {@code nats.consumer.pending-messages} messages and
+ * {@code nats.consumer.pending-bytes} bytes; beyond that it drops messages and reports a slow consumer.
+ * <p>
+ * The JetStream modes read the {@code nats.jetstream.stream} stream on {@code nats.jetstream.subject} instead:
+ * {@code jetstream-ordered} pushes to a dispatcher through an ordered consumer without acks, {@code jetstream-pull}
+ * fetches up to {@code nats.jetstream.batch-size} messages at a time through a durable pull consumer and acks each
+ * one. {@code nats.jetstream.deliver-policy=all} replays the retained stream from the start, which measures replay
+ * throughput rather than live latency.
+ */
 @Slf4j
 @Component
-public class BookTickerConsumer {
+public class BookTickerConsumer implements TickSubscriber {
+
+    private static final String SUBJECT_PREFIX = "book.ticker.";
 
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final Connection natsConnection;
     private final MeterRegistry meterRegistry;
-    private final Timer latencyTimer;
+    private final boolean echoEnabled;
+    private final String subject;
+    private final String mode;
+    private final long pendingMessages;
+    private final long pendingBytes;
+    private final Counter messagesReceived;
+    private final Counter errors;
+    private final JetStreamSettings jetStreamSettings;
+    private final Map<String, Timer> latencyTimers = new HashMap<>();
+    private TickHandler tickHandler;
+    private Dispatcher dispatcher;
     private Subscription subscription;
+    private Thread pollingThread;
 
     public BookTickerConsumer(Connection natsConnection, MeterRegistry meterRegistry,
-                              @Value("${nats.url}") String natsUrl) {
+                              @Value("${latency.echo.enabled:false}") boolean echoEnabled,
+                              @Value("${nats.consumer.subject:book.ticker.>}") String subject,
+                              @Value("${nats.consumer.mode:dispatcher}") String mode,
+                              @Value("${nats.consumer.pending-messages:65536}") long pendingMessages,
+                              @Value("${nats.consumer.pending-bytes:67108864}") long pendingBytes,
+                              JetStreamSettings jetStreamSettings) {
         this.natsConnection = natsConnection;
         this.meterRegistry = meterRegistry;
-        this.latencyTimer = Timer.builder("nats.latency")
-                .description("Latency of messages received via NATS")
-                .publishPercentiles(0.5, 0.95, 0.99)
-                .register(meterRegistry);
+        this.echoEnabled = echoEnabled;
+        this.subject = subject;
+        this.mode = mode;
+        this.pendingMessages = pendingMessages;
+        this.pendingBytes = pendingBytes;
+        this.jetStreamSettings = jetStreamSettings;
+        this.messagesReceived = meterRegistry.counter("nats.messages.received");
+        this.errors = meterRegistry.counter("nats.errors");
+    }
+
+    @Override
+    public String transport() {
+        return "nats";
+    }
+
+    @Override
+    public void start(TickHandler tickHandler) throws Exception {
+        this.tickHandler = tickHandler;
+        if (mode.startsWith("jetstream")) {
+            BookTickerStream.ensure(natsConnection, jetStreamSettings.stream(), jetStreamSettings.subject(),
+                    jetStreamSettings.storage(), Duration.ofSeconds(jetStreamSettings.maxAgeSeconds()));
+        }
+        Consumer consumer;
+        switch (mode) {
+            case "dispatcher" -> {
+                dispatcher = natsConnection.createDispatcher(this::onMessage);
+                dispatcher.subscribe(subject);
+                consumer = dispatcher;
+            }
+            case "sync" -> {
+                subscription = natsConnection.subscribe(subject);
+                pollingThread = new Thread(this::poll, "nats-consumer");
+                pollingThread.start();
+                consumer = subscription;
+            }
+            case "jetstream-ordered" -> {
+                dispatcher = natsConnection.createDispatcher();
+                subscription = natsConnection.jetStream().subscribe(
+                        jetStreamSettings.subject(), dispatcher, this::onMessage, false,
+                        PushSubscribeOptions.builder()
+                                .stream(jetStreamSettings.stream())
+                                .ordered(true)
+                                .configuration(ConsumerConfiguration.builder()
+                                        .deliverPolicy(jetStreamSettings.deliverPolicy())
+                                        .build())
+                                .build());
+                consumer = dispatcher;
+            }
+            case "jetstream-pull" -> {
+                JetStreamSubscription pullSubscription = natsConnection.jetStream().subscribe(
+                        jetStreamSettings.subject(),
+                        PullSubscribeOptions.builder()
+                                .stream(jetStreamSettings.stream())
+                                .durable(jetStreamSettings.durable())
+                                .configuration(ConsumerConfiguration.builder()
+                                        .deliverPolicy(jetStreamSettings.deliverPolicy())
+                                        .ackPolicy(AckPolicy.Explicit)
+                                        .build())
+                                .build());
+                subscription = pullSubscription;
+                pollingThread = new Thread(() -> fetch(pullSubscription), "nats-jetstream-fetch");
+                pollingThread.start();
+                consumer = pullSubscription;
+            }
+            default -> throw new IllegalArgumentException("Unknown NATS consumer mode: " + mode);
+        }
+        consumer.setPendingLimits(pendingMessages, pendingBytes);
+        meterRegistry.gauge("nats.consumer.pending.messages", consumer, Consumer::getPendingMessageCount);
+        meterRegistry.gauge("nats.consumer.pending.bytes", consumer, Consumer::getPendingByteCount);
+        meterRegistry.gauge("nats.consumer.dropped", consumer, Consumer::getDroppedCount);
+        log.info("Consuming {} in {} mode", mode.startsWith("jetstream") ? jetStreamSettings.subject() : subject, mode);
+    }
+
+    private void poll() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Message msg = subscription.nextMessage(100); // Poll messages
+                if (msg != null) {
+                    onMessage(msg);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IllegalStateException e) {
+                // The subscription was closed on shutdown
+                return;
+            }
+        }
     }
 
-    @PostConstruct
-    public void startSubscription() {
-        subscription = natsConnection.subscribe("book.ticker.BTCUSDT"); // Use Connection.subscribe instead of JetStream
-        new Thread(() -> {
-            while (!Thread.interrupted()) {
-                try {
-                    io.nats.client.Message msg = subscription.nextMessage(100); // Poll messages
-                    if (msg != null) {
-                        meterRegistry.counter("nats.messages.received").increment();
-                        long now = System.nanoTime();
-                        BookTicker bookTicker = objectMapper.readValue(msg.getData(), BookTicker.class);
-                        long latencyNs = now - bookTicker.getTimestamp();
-                        double latencyMs = latencyNs / 1_000_000.0;
-                        latencyTimer.record((Duration.ofNanos(latencyNs)));
-                        log.info("Received book ticker: {}, Latency: {} ms", bookTicker.getSymbol(), latencyMs);
-                    }
-                } catch (Exception e) {
-                    meterRegistry.counter("nats.errors").increment();
-                    log.error("Error processing message", e);
+    private void fetch(JetStreamSubscription pullSubscription) {
+        Duration maxWait = Duration.ofMillis(jetStreamSettings.fetchMaxWaitMs());
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                for (Message msg : pullSubscription.fetch(jetStreamSettings.batchSize(), maxWait)) {
+                    onMessage(msg);
+                    msg.ack();
                 }
+            } catch (IllegalStateException e) {
+                // The subscription was closed on shutdown
+                return;
+            } catch (Exception e) {
+                errors.increment();
+                log.error("Error fetching messages", e);
             }
-        }).start();
+        }
+    }
+
+    private void onMessage(Message msg) {
+        try {
+            messagesReceived.increment();
+            BookTicker bookTicker = objectMapper.readValue(msg.getData(), BookTicker.class);
+            long latencyNs = tickHandler.onTick(bookTicker.getSymbol(), bookTicker.getUpdateId(),
+                    bookTicker.getSequence(), bookTicker.getTimestamp());
+            latencyTimer(msg.getSubject()).record(latencyNs, TimeUnit.NANOSECONDS);
+            if (echoEnabled) {
+                // Reflect the send timestamp so the producer can measure round trip time on its own clock, after
+                // measuring so the publish does not count towards the latency
+                natsConnection.publish(BookTickerStream.ECHO_SUBJECT,
+                        ByteBuffer.allocate(Long.BYTES).putLong(bookTicker.getTimestamp()).array());
+            }
+        } catch (Exception e) {
+            errors.increment();
+            log.error("Error processing message", e);
+        }
+    }
+
+    /**
+     * Return the latency timer of the symbol a subject belongs to, registering it the first time the subject is seen.
+     * Only the dispatcher or polling thread calls this, so the cache needs no synchronisation.
+     */
+    private Timer latencyTimer(String subject) {
+        Timer timer = latencyTimers.get(subject);
+        if (timer == null) {
+            String symbol = subject.startsWith(SUBJECT_PREFIX) ? subject.substring(SUBJECT_PREFIX.length()) : subject;
+            timer = Timer.builder("nats.latency")
+                    .description("Latency of messages received via NATS")
+                    .tag("symbol", symbol)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+            latencyTimers.put(subject, timer);
+        }
+        return timer;
     }
 
     @PreDestroy
     public void close() throws Exception {
-        if (subscription != null) {
+        if (subscription != null && subscription.isActive()) {
             subscription.unsubscribe();
         }
+        if (dispatcher != null) {
+            natsConnection.closeDispatcher(dispatcher);
+        }
+        if (pollingThread != null) {
+            pollingThread.interrupt();
+        }
         natsConnection.close();
     }
 }
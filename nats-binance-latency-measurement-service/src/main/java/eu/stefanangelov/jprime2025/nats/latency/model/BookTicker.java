@@ -18,4 +18,8 @@ public class BookTicker {
     @JsonProperty("A")
     private String askQty;
     private long timestamp; // Added for latency measurement
+    @JsonProperty("u")
+    private long updateId;
+    @JsonProperty("seq")
+    private long sequence;
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package eu.stefanangelov.jprime2025.nats.websocket.codec;
+
+import eu.stefanangelov.jprime2025.core.codec.FixedPoint;
+import eu.stefanangelov.jprime2025.core.model.MutableBookTicker;
+
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Renders a {@link MutableBookTicker} as the JSON document the latency measurement service reads into its
+ * {@code BookTicker} model, with Binance's update id as {@code u} and the per-symbol publish sequence as
+ * {@code seq}. Only the returned payload is allocated, the transport keeps a reference to it until it
+ * has been written out. Not thread safe, it is owned by the publishing thread.
+ */
+public final class BookTickerJsonWriter {
+
+    private static final byte[] SYMBOL = "{\"s\":\"".getBytes(US_ASCII);
+    private static final byte[] BID_PRICE = "\",\"b\":\"".getBytes(US_ASCII);
+    private static final byte[] BID_QTY = "\",\"B\":\"".getBytes(US_ASCII);
+    private static final byte[] ASK_PRICE = "\",\"a\":\"".getBytes(US_ASCII);
+    private static final byte[] ASK_QTY = "\",\"A\":\"".getBytes(US_ASCII);
+    private static final byte[] TIMESTAMP = "\",\"timestamp\":".getBytes(US_ASCII);
+    private static final byte[] UPDATE_ID = ",\"u\":".getBytes(US_ASCII);
+    private static final byte[] SEQUENCE = ",\"seq\":".getBytes(US_ASCII);
+
+    private final byte[] scratch = new byte[256];
+
+    public byte[] write(MutableBookTicker ticker, long timestamp) {
+        int position = put(SYMBOL, 0);
+        CharSequence symbol = ticker.getSymbol();
+        for (int i = 0, length = symbol.length(); i < length; i++) {
+            scratch[position++] = (byte) symbol.charAt(i);
+        }
+        position = FixedPoint.format(ticker.getBidPrice(), scratch, put(BID_PRICE, position));
+        position = FixedPoint.format(ticker.getBidQty(), scratch, put(BID_QTY, position));
+        position = FixedPoint.format(ticker.getAskPrice(), scratch, put(ASK_PRICE, position));
+        position = FixedPoint.format(ticker.getAskQty(), scratch, put(ASK_QTY, position));
+        position = putLong(timestamp, put(TIMESTAMP, position));
+        position = putLong(ticker.getUpdateId(), put(UPDATE_ID, position));
+        position = putLong(ticker.getSequence(), put(SEQUENCE, position));
+        scratch[position++] = '}';
+        return Arrays.copyOf(scratch, position);
+    }
+
+    private int put(byte[] bytes, int position) {
+        System.arraycopy(bytes, 0, scratch, position, bytes.length);
+        return position + bytes.length;
+    }
+
+    private int putLong(long value, int position) {
+        if (value == Long.MIN_VALUE) {
+            return put(Long.toString(value).getBytes(US_ASCII), position);
+        }
+        if (value < 0) {
+            scratch[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long i = value; i >= 10; i /= 10) {
+            digits++;
+        }
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            scratch[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+}
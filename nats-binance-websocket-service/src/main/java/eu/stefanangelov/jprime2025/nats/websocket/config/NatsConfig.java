@@ -7,14 +7,43 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+/**
+ * NATS connection with the client buffers exposed for tuning. Values of {@code 0} keep the client defaults.
+ * <ul>
+ *     <li>{@code nats.buffer-size}: socket read/write buffer, larger values coalesce more messages per write</li>
+ *     <li>{@code nats.reconnect-buffer-size}: bytes held while reconnecting, {@code -1} for unlimited</li>
+ *     <li>{@code nats.max-outgoing-messages}: outgoing queue bound, with {@code nats.discard-when-full} publishing
+ *     fails fast instead of blocking the websocket thread</li>
+ *     <li>{@code nats.no-echo}: do not deliver this connection's own publishes back to its subscriptions</li>
+ * </ul>
+ */
 @Configuration
 public class NatsConfig {
 
     @Bean
-    public Connection natsConnection(@Value("${nats.url}") String natsUrl) throws Exception {
-        Options options = new Options.Builder()
-                .server(natsUrl)
-                .build();
-        return Nats.connect(options);
+    public Connection natsConnection(@Value("${nats.url}") String natsUrl,
+                                     @Value("${nats.buffer-size:0}") int bufferSize,
+                                     @Value("${nats.reconnect-buffer-size:0}") long reconnectBufferSize,
+                                     @Value("${nats.max-outgoing-messages:0}") int maxOutgoingMessages,
+                                     @Value("${nats.discard-when-full:false}") boolean discardWhenFull,
+                                     @Value("${nats.no-echo:true}") boolean noEcho) throws Exception {
+        Options.Builder builder = new Options.Builder()
+                .server(natsUrl);
+        if (bufferSize > 0) {
+            builder.bufferSize(bufferSize);
+        }
+        if (reconnectBufferSize != 0) {
+            builder.reconnectBufferSize(reconnectBufferSize);
+        }
+        if (maxOutgoingMessages > 0) {
+            builder.maxMessagesInOutgoingQueue(maxOutgoingMessages);
+        }
+        if (discardWhenFull) {
+            builder.discardMessagesWhenOutgoingQueueFull();
+        }
+        if (noEcho) {
+            builder.noEcho();
+        }
+        return Nats.connect(builder.build());
     }
 }
@@ -0,0 +1,66 @@
+package eu.stefanangelov.jprime2025.nats.websocket.echo;
+
+import eu.stefanangelov.jprime2025.core.clock.LatencyClock;
+import eu.stefanangelov.jprime2025.core.transport.nats.BookTickerStream;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.nats.client.Connection;
+import io.nats.client.Dispatcher;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures round trip time from the send timestamps reflected by the latency measurement service on
+ * {@link BookTickerStream#ECHO_SUBJECT}. Both ends of the measurement use this producer's clock, so no clock
+ * synchronisation is needed. Only subscribed with {@code latency.echo.enabled}.
+ */
+@Component
+public class EchoSubscriber {
+
+    private final Connection natsConnection;
+    private final LatencyClock clock;
+    private final MeterRegistry meterRegistry;
+    private final boolean echoEnabled;
+    private Dispatcher echoDispatcher;
+
+    public EchoSubscriber(Connection natsConnection, LatencyClock clock, MeterRegistry meterRegistry,
+                          @Value("${latency.echo.enabled:false}") boolean echoEnabled) {
+        this.natsConnection = natsConnection;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+        this.echoEnabled = echoEnabled;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        if (!echoEnabled) {
+            return;
+        }
+        Timer roundTripTimer = Timer.builder("nats.echo.rtt")
+                .description("Round trip time of messages reflected by the latency measurement service")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Timer oneWayTimer = Timer.builder("nats.echo.one-way")
+                .description("Half of the round trip time, a clock independent one-way latency estimate")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        echoDispatcher = natsConnection.createDispatcher(msg -> {
+            long roundTripNs = clock.nanos() - ByteBuffer.wrap(msg.getData()).getLong();
+            roundTripTimer.record(roundTripNs, TimeUnit.NANOSECONDS);
+            oneWayTimer.record(roundTripNs / 2, TimeUnit.NANOSECONDS);
+        });
+        echoDispatcher.subscribe(BookTickerStream.ECHO_SUBJECT);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (echoDispatcher != null) {
+            natsConnection.closeDispatcher(echoDispatcher);
+        }
+    }
+}
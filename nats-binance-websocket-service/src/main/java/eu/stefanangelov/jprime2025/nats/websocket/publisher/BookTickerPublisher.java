@@ -0,0 +1,185 @@
+package eu.stefanangelov.jprime2025.nats.websocket.publisher;
+
+import eu.stefanangelov.jprime2025.core.model.MutableBookTicker;
+import eu.stefanangelov.jprime2025.core.spi.TickPublisher;
+import eu.stefanangelov.jprime2025.core.transport.nats.BookTickerStream;
+import eu.stefanangelov.jprime2025.nats.websocket.codec.BookTickerJsonWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.nats.client.Connection;
+import io.nats.client.JetStream;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * NATS {@link TickPublisher}: publishes book tickers as JSON on {@code book.ticker.<symbol>} in one of two flush
+ * modes.
+ * <ul>
+ *     <li>{@code immediate}: every publish is followed by {@link Connection#flushBuffer()} on the calling thread, so
+ *     the message is written to the socket before the call returns. Lowest latency, one write per message.</li>
+ *     <li>{@code batch}: publishes only enqueue, the client's writer thread coalesces queued messages into as few
+ *     socket writes as its buffer allows. A background flush every {@code nats.publisher.flush-interval-ms} bounds
+ *     how long a message can sit in the buffer. Highest throughput.</li>
+ * </ul>
+ * {@code nats.publisher.flush} times the flush of the active mode: the buffer flush in {@code immediate} mode,
+ * the PING/PONG round trip confirming the server received everything in {@code batch} mode.
+ * <p>
+ * With {@code nats.jetstream.enabled} messages are published to the {@code nats.jetstream.stream} stream with
+ * {@link JetStream#publishAsync}, so the websocket thread does not wait for the server to persist them.
+ * {@code nats.jetstream.publish.ack} records the time from publish to the stream's acknowledgement, the cost of
+ * durability that core NATS does not pay. Flush modes apply unchanged to the underlying connection.
+ */
+@Slf4j
+@Component
+public class BookTickerPublisher implements TickPublisher {
+
+    public enum FlushMode {
+        IMMEDIATE, BATCH
+    }
+
+    private final Connection natsConnection;
+    private final FlushMode flushMode;
+    private final Timer flushTimer;
+    private final Counter flushFailures;
+    private final ScheduledExecutorService scheduler;
+    private final JetStream jetStream;
+    private final Timer publishAckTimer;
+    private final Counter publishAckFailures;
+    private final AtomicLong pendingAcks = new AtomicLong();
+    private final BookTickerJsonWriter jsonWriter = new BookTickerJsonWriter();
+    private String[] subjects = new String[64];
+
+    public BookTickerPublisher(Connection natsConnection, MeterRegistry meterRegistry,
+                               @Value("${nats.publisher.flush-mode:immediate}") String flushMode,
+                               @Value("${nats.publisher.flush-interval-ms:100}") long flushIntervalMs,
+                               @Value("${nats.publisher.flush-timeout-ms:1000}") long flushTimeoutMs,
+                               @Value("${nats.jetstream.enabled:false}") boolean jetStreamEnabled,
+                               @Value("${nats.jetstream.stream:BOOK_TICKER}") String streamName,
+                               @Value("${nats.jetstream.subject:book.ticker.*}") String streamSubject,
+                               @Value("${nats.jetstream.storage:memory}") String storage,
+                               @Value("${nats.jetstream.max-age-s:3600}") long maxAgeSeconds) throws Exception {
+        this.natsConnection = natsConnection;
+        this.flushMode = FlushMode.valueOf(flushMode.toUpperCase(Locale.ROOT));
+        this.flushTimer = Timer.builder("nats.publisher.flush")
+                .description("Duration of publisher flushes")
+                .tag("mode", this.flushMode.name().toLowerCase(Locale.ROOT))
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.flushFailures = meterRegistry.counter("nats.publisher.flush.failed");
+        meterRegistry.gauge("nats.publisher.outgoing.bytes", natsConnection, Connection::outgoingPendingBytes);
+        meterRegistry.gauge("nats.publisher.outgoing.messages", natsConnection,
+                Connection::outgoingPendingMessageCount);
+        if (this.flushMode == FlushMode.BATCH) {
+            Duration flushTimeout = Duration.ofMillis(flushTimeoutMs);
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "nats-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(() -> flush(flushTimeout), flushIntervalMs, flushIntervalMs,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+        if (jetStreamEnabled) {
+            BookTickerStream.ensure(natsConnection, streamName, streamSubject, storage,
+                    Duration.ofSeconds(maxAgeSeconds));
+            this.jetStream = natsConnection.jetStream();
+            this.publishAckTimer = Timer.builder("nats.jetstream.publish.ack")
+                    .description("Time from publishing to the stream's acknowledgement")
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+            this.publishAckFailures = meterRegistry.counter("nats.jetstream.publish.failed");
+            meterRegistry.gauge("nats.jetstream.publish.pending", pendingAcks);
+        } else {
+            this.jetStream = null;
+            this.publishAckTimer = null;
+            this.publishAckFailures = null;
+        }
+    }
+
+    @Override
+    public String transport() {
+        return "nats";
+    }
+
+    @Override
+    public void publish(MutableBookTicker ticker, int symbolId, String symbol, long sentAtNs) throws Exception {
+        publish(subjectOf(symbolId, symbol), jsonWriter.write(ticker, sentAtNs));
+    }
+
+    /**
+     * Resolve the NATS subject of a symbol, building the string only the first time the symbol is seen.
+     */
+    private String subjectOf(int symbolId, String symbol) {
+        if (symbolId >= subjects.length) {
+            subjects = Arrays.copyOf(subjects, Math.max(subjects.length << 1, symbolId + 1));
+        }
+        if (subjects[symbolId] == null) {
+            subjects[symbolId] = "book.ticker." + symbol;
+        }
+        return subjects[symbolId];
+    }
+
+    /**
+     * Publish a payload, flushing it right away in {@code immediate} mode.
+     *
+     * @param subject the subject
+     * @param payload the encoded book ticker
+     */
+    private void publish(String subject, byte[] payload) throws Exception {
+        if (jetStream != null) {
+            publishToStream(subject, payload);
+        } else {
+            natsConnection.publish(subject, payload);
+        }
+        if (flushMode == FlushMode.IMMEDIATE) {
+            long start = System.nanoTime();
+            natsConnection.flushBuffer();
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void publishToStream(String subject, byte[] payload) {
+        long start = System.nanoTime();
+        pendingAcks.incrementAndGet();
+        jetStream.publishAsync(subject, payload).whenComplete((ack, error) -> {
+            pendingAcks.decrementAndGet();
+            if (error != null) {
+                publishAckFailures.increment();
+                log.debug("JetStream publish to {} failed: {}", subject, error.toString());
+            } else {
+                publishAckTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    private void flush(Duration timeout) {
+        long start = System.nanoTime();
+        try {
+            natsConnection.flush(timeout);
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            flushFailures.increment();
+            log.warn("NATS flush failed: {}", e.toString());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}